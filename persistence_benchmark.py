@@ -0,0 +1,126 @@
+import json
+import sys
+import threading
+import time
+import urllib.error
+import urllib.request
+from http.server import BaseHTTPRequestHandler, HTTPServer
+
+# Measures JPA statements per delivered event.
+#
+# Start the app with Hibernate statistics on, once per configuration you want to compare:
+#   this tree:            mvn spring-boot:run -Dspring-boot.run.profiles=persistence-stats
+#   with batched writes:  mvn spring-boot:run -Dspring-boot.run.profiles=persistence-stats,persistence-throughput
+#   pre-change path:      git worktree add ../edp-baseline 3cead98^, add the hibernate-micrometer
+#                         dependency to its pom (the profile doesn't exist there), then
+#                         mvn spring-boot:run -Dspring-boot.run.arguments=--spring.jpa.properties.hibernate.generate_statistics=true
+# then run: python3 persistence_benchmark.py [event_count]
+#
+# Only counts statements Hibernate prepares (hibernate.statements, status=prepared).
+# JdbcTemplate writes (stats rollup, lease reaper) aren't included.
+# Deliveries are counted at the webhook, so no status API calls end up in the count.
+# Scheduled jobs that go through JPA still run - the idle rate measured up front is
+# subtracted for the length of the run.
+
+BASE_URL = "http://localhost:8080"
+WEBHOOK_PORT = 9999
+# The app has to be able to reach this - use host.docker.internal if it runs in docker
+WEBHOOK_URL = f"http://localhost:{WEBHOOK_PORT}/hook"
+EVENT_COUNT = int(sys.argv[1]) if len(sys.argv) > 1 else 500
+TIMEOUT_SECONDS = 300
+IDLE_SECONDS = 10
+# The status UPDATE lands after the webhook answers - wait for the count to stop moving
+SETTLE_SECONDS = 3
+
+received = set()
+received_lock = threading.Lock()
+
+
+class Hook(BaseHTTPRequestHandler):
+    def do_POST(self):
+        body = self.rfile.read(int(self.headers.get("Content-Length", 0)))
+        with received_lock:
+            received.add(json.loads(body)["seq"])
+        self.send_response(200)
+        self.end_headers()
+
+    def log_message(self, format, *args):
+        pass
+
+
+def request(path, method="GET", data=None):
+    body = json.dumps(data).encode("utf-8") if data is not None else None
+    req = urllib.request.Request(BASE_URL + path, data=body, method=method,
+                                 headers={"Content-Type": "application/json"})
+    with urllib.request.urlopen(req, timeout=10) as response:
+        return json.loads(response.read().decode("utf-8"))
+
+
+def prepared_statements():
+    metric = request("/actuator/metrics/hibernate.statements?tag=status:prepared")
+    return metric["measurements"][0]["value"]
+
+
+def delivered_count():
+    with received_lock:
+        return len(received)
+
+
+def settled_statements():
+    last = prepared_statements()
+    while True:
+        time.sleep(SETTLE_SECONDS)
+        current = prepared_statements()
+        if current == last:
+            return current
+        last = current
+
+
+def main():
+    server = HTTPServer(("0.0.0.0", WEBHOOK_PORT), Hook)
+    threading.Thread(target=server.serve_forever, daemon=True).start()
+
+    try:
+        destination = request("/api/destinations", "POST", {
+            "name": f"PersistenceBenchmark-{int(time.time())}",
+            "url": WEBHOOK_URL,
+            "httpMethod": "POST",
+            "signingSecret": "benchmark-secret",
+            "rateLimitRps": 100000,
+            "ingestQuotaRps": 100000,
+        })
+        idle_start = prepared_statements()
+    except urllib.error.URLError as e:
+        print(f"❌ Can't reach the app at {BASE_URL}: {e}")
+        print("   Is it running with Hibernate statistics on?")
+        sys.exit(1)
+
+    time.sleep(IDLE_SECONDS)
+    before = prepared_statements()
+    idle_rate = (before - idle_start) / IDLE_SECONDS
+
+    print(f"📤 Sending {EVENT_COUNT} events...")
+    started = time.time()
+    for i in range(EVENT_COUNT):
+        request("/api/events", "POST", {
+            "destinationId": destination["id"],
+            "payload": json.dumps({"benchmark": True, "seq": i}),
+        })
+
+    while time.time() - started < TIMEOUT_SECONDS and delivered_count() < EVENT_COUNT:
+        time.sleep(0.2)
+    elapsed = time.time() - started
+    after = settled_statements()
+    delivered = delivered_count()
+
+    background = idle_rate * (time.time() - started)
+    statements = after - before - background
+    print(f"✅ Delivered {delivered}/{EVENT_COUNT} events in {elapsed:.1f}s")
+    print(f"   {idle_rate:.2f} statements/s while idle, {background:.0f} subtracted")
+    if delivered:
+        print(f"📊 {statements:.0f} prepared statements, {statements / delivered:.2f} per delivered event")
+    server.shutdown()
+
+
+if __name__ == "__main__":
+    main()
@@ -0,0 +1,37 @@
+package com.eventdelivery.platform.config;
+
+import com.eventdelivery.platform.service.KafkaProducerService;
+import com.eventdelivery.platform.service.RegionRouter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.KafkaAdmin;
+
+/**
+ * This region's lane topics, created (or widened) by KafkaAdmin at startup.
+ * A lane with fewer partitions than listener consumers leaves the extra
+ * consumers idle, so each gets at least its lane's concurrency - same rule as
+ * the isolated topics in {@link com.eventdelivery.platform.service.IsolatedDispatchPools}.
+ * Other regions' nodes declare their own.
+ */
+@Configuration
+public class LaneTopicsConfig {
+
+    @Bean
+    public KafkaAdmin.NewTopics laneTopics(RegionRouter regionRouter,
+            @Value("${edp.lanes.high.concurrency:3}") int highConcurrency,
+            @Value("${edp.lanes.high.partitions:0}") int highPartitions,
+            @Value("${edp.lanes.normal.concurrency:2}") int normalConcurrency,
+            @Value("${edp.lanes.normal.partitions:0}") int normalPartitions,
+            @Value("${edp.lanes.bulk.concurrency:1}") int bulkConcurrency,
+            @Value("${edp.lanes.bulk.partitions:0}") int bulkPartitions) {
+        return new KafkaAdmin.NewTopics(
+                TopicBuilder.name(regionRouter.localTopic(KafkaProducerService.TOPIC_HIGH))
+                        .partitions(Math.max(highPartitions, highConcurrency)).build(),
+                TopicBuilder.name(regionRouter.localTopic(KafkaProducerService.TOPIC_NORMAL))
+                        .partitions(Math.max(normalPartitions, normalConcurrency)).build(),
+                TopicBuilder.name(regionRouter.localTopic(KafkaProducerService.TOPIC_LOW))
+                        .partitions(Math.max(bulkPartitions, bulkConcurrency)).build());
+    }
+}
@@ -0,0 +1,44 @@
+package com.eventdelivery.platform.config;
+
+import com.eventdelivery.platform.service.KafkaProducerService;
+import com.eventdelivery.platform.service.RegionRouter;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.CommonErrorHandler;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.util.backoff.ExponentialBackOff;
+
+/**
+ * What happens when a listener throws - the database or Redis is down, say.
+ * Boot puts this handler on the listener container factory, so the lanes, the
+ * isolated pools and the DLT listener all get it.
+ *
+ * The record is retried in place with a growing backoff, so an outage stalls
+ * the partition instead of burning through retries. Only once the backoff is
+ * used up is it published to this region's DLT, and its offset is committed
+ * after that publish succeeds - a record is never just logged and skipped.
+ * Records that fail on the DLT itself go to the back of the DLT.
+ */
+@Configuration
+public class ListenerErrorHandlingConfig {
+
+    @Bean
+    public CommonErrorHandler listenerErrorHandler(KafkaTemplate<String, String> kafkaTemplate,
+            RegionRouter regionRouter,
+            @Value("${edp.listener.retry.initial-interval-ms:1000}") long initialIntervalMs,
+            @Value("${edp.listener.retry.max-interval-ms:30000}") long maxIntervalMs,
+            @Value("${edp.listener.retry.max-elapsed-ms:600000}") long maxElapsedMs) {
+        String deadLetterTopic = regionRouter.localTopic(KafkaProducerService.TOPIC_DLT);
+        DeadLetterPublishingRecoverer recoverer = new DeadLetterPublishingRecoverer(kafkaTemplate,
+                (record, ex) -> new TopicPartition(deadLetterTopic, -1));
+
+        ExponentialBackOff backOff = new ExponentialBackOff(initialIntervalMs, 2.0);
+        backOff.setMaxInterval(maxIntervalMs);
+        backOff.setMaxElapsedTime(maxElapsedMs);
+        return new DefaultErrorHandler(recoverer, backOff);
+    }
+}
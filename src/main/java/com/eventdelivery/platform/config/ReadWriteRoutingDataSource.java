@@ -0,0 +1,29 @@
+package com.eventdelivery.platform.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Read-only transactions go to a replica, everything else to the primary.
+ * Only meaningful behind a LazyConnectionDataSourceProxy - otherwise the
+ * connection is fetched before the transaction is marked read-only.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+
+    private final ReplicaRouter replicaRouter;
+
+    public ReadWriteRoutingDataSource(ReplicaRouter replicaRouter) {
+        this.replicaRouter = replicaRouter;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        String replica = replicaRouter.pick();
+        return replica != null ? replica : PRIMARY;
+    }
+}
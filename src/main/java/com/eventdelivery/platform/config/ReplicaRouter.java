@@ -0,0 +1,184 @@
+package com.eventdelivery.platform.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tracks replica lag and picks a replica for read-only transactions. A replica
+ * that is too far behind, not streaming from the primary, or unreachable is
+ * skipped until it recovers; with none healthy, reads go to the primary.
+ *
+ * Lag is measured against the primary: each check records the primary's WAL
+ * position, and a replica is as far behind as the oldest recorded position it
+ * hasn't replayed yet. A stalled receiver can't report itself as caught up
+ * that way, and an idle primary doesn't make a current replica look stale.
+ */
+public class ReplicaRouter {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRouter.class);
+
+    private static final String PRIMARY_LSN_QUERY = "SELECT pg_current_wal_lsn()::text";
+
+    // The receiver's status is only visible with pg_read_all_stats, its row to everyone
+    private static final String REPLICA_QUERY = """
+            SELECT pg_is_in_recovery(),
+                   pg_last_wal_replay_lsn()::text,
+                   EXISTS (SELECT 1 FROM pg_stat_wal_receiver),
+                   (SELECT status FROM pg_stat_wal_receiver)
+            """;
+
+    private record LsnSample(long lsn, long atMs) {
+    }
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final long maxLagMs;
+    private final AtomicInteger next = new AtomicInteger();
+    // Primary WAL positions from recent checks, oldest first. Only touched by checkLag
+    private final Deque<LsnSample> primaryLsns = new ArrayDeque<>();
+
+    public ReplicaRouter(DataSource primary, List<Replica> replicas, long maxLagMs, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicas = replicas;
+        this.maxLagMs = maxLagMs;
+        for (Replica replica : replicas) {
+            meterRegistry.gauge("edp.datasource.replica.lag", List.of(Tag.of("replica", replica.name())), replica,
+                    r -> r.lagMs);
+        }
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    /**
+     * Round-robin over healthy replicas, or null if there are none.
+     */
+    public String pick() {
+        int size = replicas.size();
+        if (size == 0) {
+            return null;
+        }
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy) {
+                return replica.name();
+            }
+        }
+        return null;
+    }
+
+    @Scheduled(fixedDelayString = "${edp.datasource.replicas.check-interval-ms:2000}")
+    public void checkLag() {
+        long now = System.currentTimeMillis();
+        try (Connection connection = primary.getConnection();
+                Statement statement = connection.createStatement();
+                ResultSet rs = statement.executeQuery(PRIMARY_LSN_QUERY)) {
+            rs.next();
+            primaryLsns.addLast(new LsnSample(parseLsn(rs.getString(1)), now));
+        } catch (Exception e) {
+            // Nothing to measure against; reads would fail over to the primary anyway
+            log.debug("Primary WAL position check failed: {}", e.getMessage());
+            replicas.forEach(r -> update(r, Double.NaN, false));
+            return;
+        }
+        // One sample older than max-lag-ms is enough to tell a replica is past it,
+        // so the gauge tops out a little above max-lag-ms
+        while (primaryLsns.size() > 1) {
+            LsnSample oldest = primaryLsns.removeFirst();
+            if (primaryLsns.peekFirst().atMs() >= now - maxLagMs) {
+                primaryLsns.addFirst(oldest);
+                break;
+            }
+        }
+
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource().getConnection();
+                    Statement statement = connection.createStatement();
+                    ResultSet rs = statement.executeQuery(REPLICA_QUERY)) {
+                rs.next();
+                String replayed = rs.getString(2);
+                String status = rs.getString(4);
+                if (!rs.getBoolean(1) || replayed == null || !rs.getBoolean(3)
+                        || (status != null && !"streaming".equals(status))) {
+                    log.debug("Replica {} is not streaming from the primary (receiver {})", replica.name(),
+                            status);
+                    update(replica, Double.NaN, false);
+                    continue;
+                }
+                double lagMs = lagMs(parseLsn(replayed), now);
+                update(replica, lagMs, lagMs <= maxLagMs);
+            } catch (Exception e) {
+                log.debug("Replica {} lag check failed: {}", replica.name(), e.getMessage());
+                update(replica, Double.NaN, false);
+            }
+        }
+    }
+
+    // Time since the primary was first seen past what the replica has replayed
+    private double lagMs(long replayedLsn, long now) {
+        for (LsnSample sample : primaryLsns) {
+            if (sample.lsn() > replayedLsn) {
+                return now - sample.atMs();
+            }
+        }
+        return 0;
+    }
+
+    private void update(Replica replica, double lagMs, boolean healthy) {
+        boolean wasHealthy = replica.healthy;
+        replica.lagMs = lagMs;
+        replica.healthy = healthy;
+        if (wasHealthy != healthy) {
+            log.warn("Replica {} is now {} (lag {}ms)", replica.name(),
+                    healthy ? "in rotation" : "out of rotation", lagMs);
+        }
+    }
+
+    // pg_lsn text is two hex halves, "16/B374D848"
+    private static long parseLsn(String lsn) {
+        int slash = lsn.indexOf('/');
+        return (Long.parseLong(lsn.substring(0, slash), 16) << 32) | Long.parseLong(lsn.substring(slash + 1), 16);
+    }
+
+    @PreDestroy
+    public void close() {
+        replicas.forEach(r -> r.dataSource().close());
+    }
+
+    public static final class Replica {
+        private final String name;
+        private final HikariDataSource dataSource;
+        // Out of rotation until the first lag check says otherwise
+        private volatile boolean healthy;
+        private volatile double lagMs = Double.NaN;
+
+        public Replica(String name, HikariDataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public HikariDataSource dataSource() {
+            return dataSource;
+        }
+    }
+}
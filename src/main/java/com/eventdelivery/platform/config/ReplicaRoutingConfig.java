@@ -0,0 +1,80 @@
+package com.eventdelivery.platform.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read replicas, off by default. When enabled the app's DataSource routes
+ * read-only transactions to the replicas and everything else to the primary
+ * configured under spring.datasource.
+ *
+ * Reads only land on a replica when the caller opts in with
+ * {@code @Transactional(readOnly = true)}; repository lookups the dispatcher
+ * depends on are redeclared as read-write so they always see the primary.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "edp.datasource.replicas", name = "enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+    // Still the only HikariDataSource bean, so admission control keeps watching the write pool
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaRouter replicaRouter(HikariDataSource primaryDataSource, DataSourceProperties properties,
+            MeterRegistry meterRegistry,
+            @Value("${edp.datasource.replicas.urls}") List<String> urls,
+            @Value("${edp.datasource.replicas.username:${spring.datasource.username}}") String username,
+            @Value("${edp.datasource.replicas.password:${spring.datasource.password}}") String password,
+            @Value("${edp.datasource.replicas.pool-size:10}") int poolSize,
+            @Value("${edp.datasource.replicas.max-lag-ms:5000}") long maxLagMs) {
+        List<ReplicaRouter.Replica> replicas = new ArrayList<>();
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName("replica-" + i);
+            pool.setJdbcUrl(urls.get(i));
+            pool.setUsername(username);
+            pool.setPassword(password);
+            pool.setDriverClassName(properties.getDriverClassName());
+            pool.setMaximumPoolSize(poolSize);
+            pool.setReadOnly(true);
+            // Don't fail startup on a replica that's down - it just stays out of rotation
+            pool.setInitializationFailTimeout(-1);
+            replicas.add(new ReplicaRouter.Replica("replica-" + i, pool));
+        }
+        return new ReplicaRouter(primaryDataSource, replicas, maxLagMs, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaRouter replicaRouter) {
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(ReadWriteRoutingDataSource.PRIMARY, primaryDataSource);
+        replicaRouter.getReplicas().forEach(r -> targets.put(r.name(), r.dataSource()));
+
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(replicaRouter);
+        routing.setTargetDataSources(targets);
+        routing.setDefaultTargetDataSource(primaryDataSource);
+        routing.afterPropertiesSet();
+
+        // Defers getConnection() until the first statement, by which time the transaction's read-only flag is set
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+}
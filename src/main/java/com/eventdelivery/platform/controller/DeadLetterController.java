@@ -0,0 +1,44 @@
+package com.eventdelivery.platform.controller;
+
+import com.eventdelivery.platform.dto.DltRedriveRequest;
+import com.eventdelivery.platform.dto.DltRedriveResponse;
+import com.eventdelivery.platform.service.DeadLetterService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.UUID;
+
+@RestController
+@ConditionalOnProperty(prefix = "edp.api", name = "enabled", havingValue = "true", matchIfMissing = true)
+@RequestMapping("/api/dlt/redrives")
+public class DeadLetterController {
+
+    private final DeadLetterService deadLetterService;
+
+    public DeadLetterController(DeadLetterService deadLetterService) {
+        this.deadLetterService = deadLetterService;
+    }
+
+    @PostMapping
+    public ResponseEntity<DltRedriveResponse> startRedrive(@RequestBody DltRedriveRequest request) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(deadLetterService.startRedrive(request));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<DltRedriveResponse> getRedrive(@PathVariable UUID id) {
+        return ResponseEntity.of(deadLetterService.getRedrive(id));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<DltRedriveResponse> cancelRedrive(@PathVariable UUID id) {
+        return ResponseEntity.of(deadLetterService.cancelRedrive(id));
+    }
+}
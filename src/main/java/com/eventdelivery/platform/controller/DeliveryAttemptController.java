@@ -0,0 +1,56 @@
+package com.eventdelivery.platform.controller;
+
+import com.eventdelivery.platform.dto.CursorPage;
+import com.eventdelivery.platform.dto.DestinationStatsResponse;
+import com.eventdelivery.platform.repository.DeliveryAttemptView;
+import com.eventdelivery.platform.service.DeliveryAttemptService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@RestController
+@ConditionalOnProperty(prefix = "edp.api", name = "enabled", havingValue = "true", matchIfMissing = true)
+@RequestMapping("/api")
+public class DeliveryAttemptController {
+
+    private final DeliveryAttemptService deliveryAttemptService;
+
+    public DeliveryAttemptController(DeliveryAttemptService deliveryAttemptService) {
+        this.deliveryAttemptService = deliveryAttemptService;
+    }
+
+    @GetMapping("/events/{eventId}/attempts")
+    public ResponseEntity<CursorPage<DeliveryAttemptView>> getEventAttempts(
+            @PathVariable UUID eventId,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor) {
+        return ResponseEntity.ok(deliveryAttemptService.getAttemptsForEvent(eventId, limit, cursor));
+    }
+
+    @GetMapping("/destinations/{destinationId}/attempts")
+    public ResponseEntity<CursorPage<DeliveryAttemptView>> getDestinationAttempts(
+            @PathVariable UUID destinationId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor) {
+        return ResponseEntity.ok(
+                deliveryAttemptService.getAttemptsForDestination(destinationId, from, to, limit, cursor));
+    }
+
+    @GetMapping("/destinations/{destinationId}/stats")
+    public ResponseEntity<DestinationStatsResponse> getDestinationStats(
+            @PathVariable UUID destinationId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return ResponseEntity.ok(deliveryAttemptService.getDestinationStats(destinationId, from, to));
+    }
+}
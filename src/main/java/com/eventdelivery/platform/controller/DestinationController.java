@@ -1,16 +1,21 @@
 package com.eventdelivery.platform.controller;
 
+import com.eventdelivery.platform.dto.CursorPage;
 import com.eventdelivery.platform.dto.DestinationRequest;
 import com.eventdelivery.platform.model.Destination;
+import com.eventdelivery.platform.repository.DestinationSummary;
 import com.eventdelivery.platform.service.DestinationService;
 import jakarta.validation.Valid;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
 import java.util.UUID;
 
 @RestController
+@ConditionalOnProperty(prefix = "edp.api", name = "enabled", havingValue = "true", matchIfMissing = true)
 @RequestMapping("/api/destinations")
 public class DestinationController {
 
@@ -25,9 +30,20 @@ public class DestinationController {
         return ResponseEntity.ok(destinationService.createDestination(request));
     }
 
+    // Summaries only - signing secrets and headers stay on GET /{id}
     @GetMapping
-    public ResponseEntity<List<Destination>> getAllDestinations() {
-        return ResponseEntity.ok(destinationService.getAllDestinations());
+    public ResponseEntity<CursorPage<DestinationSummary>> listDestinations(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor) {
+        return ResponseEntity.ok(destinationService.listDestinations(limit, cursor));
+    }
+
+    // Full export as NDJSON: Accept: application/x-ndjson
+    @GetMapping(produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamDestinations() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(destinationService::streamDestinations);
     }
 
     @GetMapping("/{id}")
@@ -1,23 +1,42 @@
 package com.eventdelivery.platform.controller;
 
 import com.eventdelivery.platform.dto.EventRequest;
+import com.eventdelivery.platform.dto.EventStatusResponse;
 import com.eventdelivery.platform.model.Event;
+import com.eventdelivery.platform.service.AdmissionControlService;
 import com.eventdelivery.platform.service.EventService;
+import com.eventdelivery.platform.service.EventStreamService;
+import com.eventdelivery.platform.service.OverloadedException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @RestController
+@ConditionalOnProperty(prefix = "edp.api", name = "enabled", havingValue = "true", matchIfMissing = true)
 @RequestMapping("/api/events")
 public class EventController {
 
     private final EventService eventService;
+    private final AdmissionControlService admissionControlService;
+    private final EventStreamService eventStreamService;
 
-    public EventController(EventService eventService) {
+    private static final int MAX_STATUS_IDS = 100;
+
+    public EventController(EventService eventService, AdmissionControlService admissionControlService,
+            EventStreamService eventStreamService) {
         this.eventService = eventService;
+        this.admissionControlService = admissionControlService;
+        this.eventStreamService = eventStreamService;
     }
 
     @PostMapping
@@ -25,12 +44,43 @@ public class EventController {
             @Valid @RequestBody EventRequest request,
             @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
 
+        // Shed before we take a DB connection; per-destination quota is checked in the service
+        admissionControlService.checkCapacity();
+
         Event createdEvent = eventService.receiveEvent(request, idempotencyKey);
         return ResponseEntity.status(HttpStatus.ACCEPTED).body(createdEvent);
     }
 
+    // Streamed ingest: NDJSON events in, NDJSON acks back on the same connection as batches commit.
+    // Runs async, so the Tomcat thread is handed back as soon as the stream starts
+    @PostMapping(value = "/stream", consumes = "application/x-ndjson", produces = "application/x-ndjson")
+    public void streamEvents(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        eventStreamService.ingestAsync(request, response);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Event> getEvent(@PathVariable UUID id) {
         return ResponseEntity.ok(eventService.getEvent(id));
     }
+
+    // Lightweight status for polling - no payload
+    @GetMapping("/{id}/status")
+    public ResponseEntity<EventStatusResponse> getEventStatus(@PathVariable UUID id) {
+        return ResponseEntity.ok(eventService.getEventStatus(id));
+    }
+
+    @GetMapping("/status")
+    public ResponseEntity<List<EventStatusResponse>> getEventStatuses(@RequestParam List<UUID> ids) {
+        if (ids.size() > MAX_STATUS_IDS) {
+            throw new IllegalArgumentException("At most " + MAX_STATUS_IDS + " ids per request");
+        }
+        return ResponseEntity.ok(eventService.getEventStatuses(ids));
+    }
+
+    @ExceptionHandler(OverloadedException.class)
+    public ResponseEntity<Map<String, String>> handleOverloaded(OverloadedException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(Map.of("message", e.getMessage()));
+    }
 }
@@ -2,6 +2,7 @@ package com.eventdelivery.platform.controller;
 
 import com.eventdelivery.platform.dto.ReplayRequest;
 import com.eventdelivery.platform.service.EventService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -11,6 +12,7 @@ import org.springframework.web.bind.annotation.RestController;
 import java.util.Map;
 
 @RestController
+@ConditionalOnProperty(prefix = "edp.api", name = "enabled", havingValue = "true", matchIfMissing = true)
 @RequestMapping("/api/replays")
 public class ReplayController {
 
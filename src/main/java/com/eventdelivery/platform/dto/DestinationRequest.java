@@ -1,6 +1,10 @@
 package com.eventdelivery.platform.dto;
 
+import com.eventdelivery.platform.model.ResponseCapture;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
 import org.hibernate.validator.constraints.URL;
 
 public class DestinationRequest {
@@ -18,6 +22,30 @@ public class DestinationRequest {
 
     private String signingSecret;
     private Integer rateLimitRps;
+    private Integer ingestQuotaRps;
+
+    @Min(1)
+    private Integer maxAttempts;
+    @Min(1)
+    private Integer retryBaseDelayMs;
+    @Min(1)
+    private Integer retryMaxDelayMs;
+
+    private Boolean batchEnabled;
+    private Integer batchMaxEvents;
+    private Integer batchMaxBytes;
+    private Integer batchLingerMs;
+
+    private ResponseCapture responseCapture; // defaults to PREFIX
+    @Min(1)
+    @Max(65536)
+    private Integer responseCaptureBytes;
+    private Boolean responseCaptureOnFailure;
+
+    @Pattern(regexp = "[a-z0-9-]{1,64}", message = "homeRegion must be lowercase letters, digits or dashes")
+    private String homeRegion;
+
+    private String transform; // JSON: {"filter": [...], "fields": {...}}
 
     public DestinationRequest() {
     }
@@ -69,4 +97,108 @@ public class DestinationRequest {
     public void setRateLimitRps(Integer rateLimitRps) {
         this.rateLimitRps = rateLimitRps;
     }
+
+    public Integer getIngestQuotaRps() {
+        return ingestQuotaRps;
+    }
+
+    public void setIngestQuotaRps(Integer ingestQuotaRps) {
+        this.ingestQuotaRps = ingestQuotaRps;
+    }
+
+    public Integer getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public void setMaxAttempts(Integer maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+
+    public Integer getRetryBaseDelayMs() {
+        return retryBaseDelayMs;
+    }
+
+    public void setRetryBaseDelayMs(Integer retryBaseDelayMs) {
+        this.retryBaseDelayMs = retryBaseDelayMs;
+    }
+
+    public Integer getRetryMaxDelayMs() {
+        return retryMaxDelayMs;
+    }
+
+    public void setRetryMaxDelayMs(Integer retryMaxDelayMs) {
+        this.retryMaxDelayMs = retryMaxDelayMs;
+    }
+
+    public Boolean getBatchEnabled() {
+        return batchEnabled;
+    }
+
+    public void setBatchEnabled(Boolean batchEnabled) {
+        this.batchEnabled = batchEnabled;
+    }
+
+    public Integer getBatchMaxEvents() {
+        return batchMaxEvents;
+    }
+
+    public void setBatchMaxEvents(Integer batchMaxEvents) {
+        this.batchMaxEvents = batchMaxEvents;
+    }
+
+    public Integer getBatchMaxBytes() {
+        return batchMaxBytes;
+    }
+
+    public void setBatchMaxBytes(Integer batchMaxBytes) {
+        this.batchMaxBytes = batchMaxBytes;
+    }
+
+    public Integer getBatchLingerMs() {
+        return batchLingerMs;
+    }
+
+    public void setBatchLingerMs(Integer batchLingerMs) {
+        this.batchLingerMs = batchLingerMs;
+    }
+
+    public ResponseCapture getResponseCapture() {
+        return responseCapture;
+    }
+
+    public void setResponseCapture(ResponseCapture responseCapture) {
+        this.responseCapture = responseCapture;
+    }
+
+    public Integer getResponseCaptureBytes() {
+        return responseCaptureBytes;
+    }
+
+    public void setResponseCaptureBytes(Integer responseCaptureBytes) {
+        this.responseCaptureBytes = responseCaptureBytes;
+    }
+
+    public Boolean getResponseCaptureOnFailure() {
+        return responseCaptureOnFailure;
+    }
+
+    public void setResponseCaptureOnFailure(Boolean responseCaptureOnFailure) {
+        this.responseCaptureOnFailure = responseCaptureOnFailure;
+    }
+
+    public String getHomeRegion() {
+        return homeRegion;
+    }
+
+    public void setHomeRegion(String homeRegion) {
+        this.homeRegion = homeRegion;
+    }
+
+    public String getTransform() {
+        return transform;
+    }
+
+    public void setTransform(String transform) {
+        this.transform = transform;
+    }
 }
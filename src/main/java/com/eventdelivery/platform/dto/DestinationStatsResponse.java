@@ -0,0 +1,82 @@
+package com.eventdelivery.platform.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public class DestinationStatsResponse {
+    private UUID destinationId;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private long attempts;
+    private long successes;
+    private Double successRate;
+    private Double avgDurationMs;
+    private Long p95DurationMs; // upper bound of the latency bucket holding the 95th percentile
+
+    public DestinationStatsResponse() {
+    }
+
+    public UUID getDestinationId() {
+        return destinationId;
+    }
+
+    public void setDestinationId(UUID destinationId) {
+        this.destinationId = destinationId;
+    }
+
+    public LocalDateTime getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDateTime from) {
+        this.from = from;
+    }
+
+    public LocalDateTime getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDateTime to) {
+        this.to = to;
+    }
+
+    public long getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(long attempts) {
+        this.attempts = attempts;
+    }
+
+    public long getSuccesses() {
+        return successes;
+    }
+
+    public void setSuccesses(long successes) {
+        this.successes = successes;
+    }
+
+    public Double getSuccessRate() {
+        return successRate;
+    }
+
+    public void setSuccessRate(Double successRate) {
+        this.successRate = successRate;
+    }
+
+    public Double getAvgDurationMs() {
+        return avgDurationMs;
+    }
+
+    public void setAvgDurationMs(Double avgDurationMs) {
+        this.avgDurationMs = avgDurationMs;
+    }
+
+    public Long getP95DurationMs() {
+        return p95DurationMs;
+    }
+
+    public void setP95DurationMs(Long p95DurationMs) {
+        this.p95DurationMs = p95DurationMs;
+    }
+}
@@ -0,0 +1,58 @@
+package com.eventdelivery.platform.dto;
+
+import com.eventdelivery.platform.model.EventPriority;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Which dead letters to redrive. The time window is when the event was
+ * dead-lettered (the DLT record timestamp), not when it was received.
+ */
+public class DltRedriveRequest {
+    private UUID destinationId; // all destinations if null
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+    private EventPriority priority; // bulk lane unless set
+    private Integer ratePerSecond;
+
+    public UUID getDestinationId() {
+        return destinationId;
+    }
+
+    public void setDestinationId(UUID destinationId) {
+        this.destinationId = destinationId;
+    }
+
+    public LocalDateTime getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(LocalDateTime startTime) {
+        this.startTime = startTime;
+    }
+
+    public LocalDateTime getEndTime() {
+        return endTime;
+    }
+
+    public void setEndTime(LocalDateTime endTime) {
+        this.endTime = endTime;
+    }
+
+    public EventPriority getPriority() {
+        return priority;
+    }
+
+    public void setPriority(EventPriority priority) {
+        this.priority = priority;
+    }
+
+    public Integer getRatePerSecond() {
+        return ratePerSecond;
+    }
+
+    public void setRatePerSecond(Integer ratePerSecond) {
+        this.ratePerSecond = ratePerSecond;
+    }
+}
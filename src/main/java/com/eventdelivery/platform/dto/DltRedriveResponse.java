@@ -0,0 +1,84 @@
+package com.eventdelivery.platform.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public class DltRedriveResponse {
+    private UUID id;
+    private String state;
+    private long scanned;
+    private long redriven;
+    private LocalDateTime createdAt;
+    private LocalDateTime finishedAt;
+    private String error;
+
+    public DltRedriveResponse() {
+    }
+
+    public DltRedriveResponse(UUID id, String state, long scanned, long redriven, LocalDateTime createdAt,
+            LocalDateTime finishedAt, String error) {
+        this.id = id;
+        this.state = state;
+        this.scanned = scanned;
+        this.redriven = redriven;
+        this.createdAt = createdAt;
+        this.finishedAt = finishedAt;
+        this.error = error;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public String getState() {
+        return state;
+    }
+
+    public void setState(String state) {
+        this.state = state;
+    }
+
+    public long getScanned() {
+        return scanned;
+    }
+
+    public void setScanned(long scanned) {
+        this.scanned = scanned;
+    }
+
+    public long getRedriven() {
+        return redriven;
+    }
+
+    public void setRedriven(long redriven) {
+        this.redriven = redriven;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(LocalDateTime finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
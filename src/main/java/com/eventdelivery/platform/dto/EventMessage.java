@@ -1,5 +1,7 @@
 package com.eventdelivery.platform.dto;
 
+import com.eventdelivery.platform.model.EventPriority;
+
 import java.util.UUID;
 
 public class EventMessage {
@@ -7,6 +9,11 @@ public class EventMessage {
     private UUID destinationId;
     private String payload;
     private int attemptCount;
+    private EventPriority priority = EventPriority.NORMAL;
+    private long lastDelayMs; // previous retry delay, feeds the decorrelated jitter
+    private String region; // destination's home region, picks the topic
+    private String idempotencyKey; // for cross-region dedup at delivery time
+    private int missingRetries; // times the event row wasn't there yet when this was consumed
 
     public EventMessage() {
     }
@@ -18,6 +25,11 @@ public class EventMessage {
         this.attemptCount = attemptCount;
     }
 
+    public EventMessage(UUID eventId, UUID destinationId, String payload, int attemptCount, EventPriority priority) {
+        this(eventId, destinationId, payload, attemptCount);
+        this.priority = priority != null ? priority : EventPriority.NORMAL;
+    }
+
     public UUID getEventId() {
         return eventId;
     }
@@ -49,4 +61,44 @@ public class EventMessage {
     public void setAttemptCount(int attemptCount) {
         this.attemptCount = attemptCount;
     }
+
+    public EventPriority getPriority() {
+        return priority;
+    }
+
+    public void setPriority(EventPriority priority) {
+        this.priority = priority;
+    }
+
+    public long getLastDelayMs() {
+        return lastDelayMs;
+    }
+
+    public void setLastDelayMs(long lastDelayMs) {
+        this.lastDelayMs = lastDelayMs;
+    }
+
+    public String getRegion() {
+        return region;
+    }
+
+    public void setRegion(String region) {
+        this.region = region;
+    }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    public int getMissingRetries() {
+        return missingRetries;
+    }
+
+    public void setMissingRetries(int missingRetries) {
+        this.missingRetries = missingRetries;
+    }
 }
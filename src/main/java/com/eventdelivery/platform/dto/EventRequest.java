@@ -1,7 +1,10 @@
 package com.eventdelivery.platform.dto;
 
+import com.eventdelivery.platform.model.EventPriority;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 public class EventRequest {
@@ -11,6 +14,14 @@ public class EventRequest {
     @NotBlank(message = "Payload is required")
     private String payload;
 
+    private EventPriority priority; // defaults to NORMAL
+
+    // Deliver at this time, or after this delay - at most one of the two
+    private LocalDateTime deliverAt;
+
+    @PositiveOrZero(message = "Delay must not be negative")
+    private Long delayMs;
+
     public EventRequest() {
     }
 
@@ -29,4 +40,28 @@ public class EventRequest {
     public void setPayload(String payload) {
         this.payload = payload;
     }
+
+    public EventPriority getPriority() {
+        return priority;
+    }
+
+    public void setPriority(EventPriority priority) {
+        this.priority = priority;
+    }
+
+    public LocalDateTime getDeliverAt() {
+        return deliverAt;
+    }
+
+    public void setDeliverAt(LocalDateTime deliverAt) {
+        this.deliverAt = deliverAt;
+    }
+
+    public Long getDelayMs() {
+        return delayMs;
+    }
+
+    public void setDelayMs(Long delayMs) {
+        this.delayMs = delayMs;
+    }
 }
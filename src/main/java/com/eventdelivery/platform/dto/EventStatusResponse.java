@@ -0,0 +1,126 @@
+package com.eventdelivery.platform.dto;
+
+import com.eventdelivery.platform.model.DeliveryAttempt;
+import com.eventdelivery.platform.model.Event;
+import com.eventdelivery.platform.model.EventStatus;
+import com.eventdelivery.platform.repository.EventStatusView;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public class EventStatusResponse {
+    private UUID id;
+    private EventStatus status;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime deliverAt;
+    private Integer lastResponseCode;
+    private Boolean lastAttemptSuccess;
+    private LocalDateTime lastAttemptAt;
+    private Long lastAttemptDurationMs;
+
+    public EventStatusResponse() {
+    }
+
+    public static EventStatusResponse from(EventStatusView view) {
+        EventStatusResponse response = new EventStatusResponse();
+        response.setId(view.getId());
+        response.setStatus(view.getStatus());
+        response.setCreatedAt(view.getCreatedAt());
+        response.setUpdatedAt(view.getUpdatedAt());
+        response.setDeliverAt(view.getDeliverAt());
+        response.setLastResponseCode(view.getLastResponseCode());
+        response.setLastAttemptSuccess(view.getLastAttemptSuccess());
+        response.setLastAttemptAt(view.getLastAttemptAt());
+        response.setLastAttemptDurationMs(view.getLastAttemptDurationMs());
+        return response;
+    }
+
+    public static EventStatusResponse from(Event event, DeliveryAttempt lastAttempt) {
+        EventStatusResponse response = new EventStatusResponse();
+        response.setId(event.getId());
+        response.setStatus(event.getStatus());
+        response.setCreatedAt(event.getCreatedAt());
+        response.setUpdatedAt(event.getUpdatedAt());
+        response.setDeliverAt(event.getDeliverAt());
+        if (lastAttempt != null) {
+            response.setLastResponseCode(lastAttempt.getResponseCode());
+            response.setLastAttemptSuccess(lastAttempt.isSuccess());
+            response.setLastAttemptAt(lastAttempt.getAttemptedAt());
+            response.setLastAttemptDurationMs(lastAttempt.getDurationMs());
+        }
+        return response;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public EventStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(EventStatus status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public LocalDateTime getDeliverAt() {
+        return deliverAt;
+    }
+
+    public void setDeliverAt(LocalDateTime deliverAt) {
+        this.deliverAt = deliverAt;
+    }
+
+    public Integer getLastResponseCode() {
+        return lastResponseCode;
+    }
+
+    public void setLastResponseCode(Integer lastResponseCode) {
+        this.lastResponseCode = lastResponseCode;
+    }
+
+    public Boolean getLastAttemptSuccess() {
+        return lastAttemptSuccess;
+    }
+
+    public void setLastAttemptSuccess(Boolean lastAttemptSuccess) {
+        this.lastAttemptSuccess = lastAttemptSuccess;
+    }
+
+    public LocalDateTime getLastAttemptAt() {
+        return lastAttemptAt;
+    }
+
+    public void setLastAttemptAt(LocalDateTime lastAttemptAt) {
+        this.lastAttemptAt = lastAttemptAt;
+    }
+
+    public Long getLastAttemptDurationMs() {
+        return lastAttemptDurationMs;
+    }
+
+    public void setLastAttemptDurationMs(Long lastAttemptDurationMs) {
+        this.lastAttemptDurationMs = lastAttemptDurationMs;
+    }
+}
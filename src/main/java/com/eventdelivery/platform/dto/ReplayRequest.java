@@ -1,5 +1,6 @@
 package com.eventdelivery.platform.dto;
 
+import com.eventdelivery.platform.model.EventPriority;
 import com.eventdelivery.platform.model.EventStatus;
 import lombok.Data;
 
@@ -12,6 +13,7 @@ public class ReplayRequest {
     private EventStatus status; // filter by status if needed
     private LocalDateTime startTime;
     private LocalDateTime endTime;
+    private EventPriority priority; // replays go to the bulk lane unless set
 
     public UUID getDestinationId() {
         return destinationId;
@@ -44,4 +46,12 @@ public class ReplayRequest {
     public void setEndTime(LocalDateTime endTime) {
         this.endTime = endTime;
     }
+
+    public EventPriority getPriority() {
+        return priority;
+    }
+
+    public void setPriority(EventPriority priority) {
+        this.priority = priority;
+    }
 }
@@ -0,0 +1,78 @@
+package com.eventdelivery.platform.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.UUID;
+
+/**
+ * Ack for one streamed event. seq is the event's line number in the stream
+ * (from 0, blank lines not counted). Status is RECEIVED or SCHEDULED when
+ * accepted, DUPLICATE for a known idempotency key (id is the original event),
+ * or REJECTED with an error and, when worth retrying, retryAfter in seconds.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class StreamAck {
+    private long seq;
+    private UUID id;
+    private String status;
+    private String error;
+    private Long retryAfter;
+
+    public StreamAck() {
+    }
+
+    public static StreamAck accepted(UUID id, String status) {
+        StreamAck ack = new StreamAck();
+        ack.setId(id);
+        ack.setStatus(status);
+        return ack;
+    }
+
+    public static StreamAck rejected(String error, Long retryAfter) {
+        StreamAck ack = new StreamAck();
+        ack.setStatus("REJECTED");
+        ack.setError(error);
+        ack.setRetryAfter(retryAfter);
+        return ack;
+    }
+
+    public long getSeq() {
+        return seq;
+    }
+
+    public void setSeq(long seq) {
+        this.seq = seq;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public Long getRetryAfter() {
+        return retryAfter;
+    }
+
+    public void setRetryAfter(Long retryAfter) {
+        this.retryAfter = retryAfter;
+    }
+}
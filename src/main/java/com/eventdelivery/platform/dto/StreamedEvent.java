@@ -0,0 +1,20 @@
+package com.eventdelivery.platform.dto;
+
+/**
+ * One line of a streamed ingest (POST /api/events/stream). Same fields as a
+ * single request, plus the idempotency key that would otherwise be a header.
+ */
+public class StreamedEvent extends EventRequest {
+    private String idempotencyKey;
+
+    public StreamedEvent() {
+    }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+}
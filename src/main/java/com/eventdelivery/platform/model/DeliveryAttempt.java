@@ -11,13 +11,16 @@ import java.util.UUID;
 public class DeliveryAttempt {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "event_id", nullable = false)
     private Event event;
 
+    @Column(name = "destination_id")
+    private UUID destinationId;
+
     private int responseCode;
 
     @Column(columnDefinition = "TEXT")
@@ -57,6 +60,14 @@ public class DeliveryAttempt {
         this.event = event;
     }
 
+    public UUID getDestinationId() {
+        return destinationId;
+    }
+
+    public void setDestinationId(UUID destinationId) {
+        this.destinationId = destinationId;
+    }
+
     public int getResponseCode() {
         return responseCode;
     }
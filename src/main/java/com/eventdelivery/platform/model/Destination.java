@@ -2,6 +2,7 @@ package com.eventdelivery.platform.model;
 
 import jakarta.persistence.*;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
@@ -32,9 +33,58 @@ public class Destination {
     @Column(name = "rate_limit_rps")
     private Integer rateLimitRps; // req/sec
 
+    @Column(name = "ingest_quota_rps")
+    private Integer ingestQuotaRps; // accepted events/sec at ingest, null = unlimited
+
+    // Retry policy - see RetryPolicy for how these are used
+    @Column(name = "max_attempts", nullable = false)
+    private int maxAttempts = 5;
+
+    @Column(name = "retry_base_delay_ms", nullable = false)
+    private int retryBaseDelayMs = 1000;
+
+    @Column(name = "retry_max_delay_ms", nullable = false)
+    private int retryMaxDelayMs = 300000;
+
+    // Opt-in batched delivery: events are sent as one JSON array per request
+    @Column(name = "batch_enabled", nullable = false)
+    private boolean batchEnabled;
+
+    @Column(name = "batch_max_events")
+    private Integer batchMaxEvents;
+
+    @Column(name = "batch_max_bytes")
+    private Integer batchMaxBytes;
+
+    @Column(name = "batch_linger_ms")
+    private Integer batchLingerMs;
+
+    // What's kept of the receiver's response - bodies are never read past responseCaptureBytes
+    @Enumerated(EnumType.STRING)
+    @Column(name = "response_capture", nullable = false)
+    private ResponseCapture responseCapture = ResponseCapture.PREFIX;
+
+    @Column(name = "response_capture_bytes", nullable = false)
+    private int responseCaptureBytes = 1000;
+
+    // Only capture for failed deliveries
+    @Column(name = "response_capture_on_failure", nullable = false)
+    private boolean responseCaptureOnFailure;
+
+    // Region whose dispatchers deliver to this destination; null = the ingesting region
+    @Column(name = "home_region")
+    private String homeRegion;
+
+    // Filter/projection rules (JSON), null = every payload delivered as is. See PayloadTransform
+    @Column(columnDefinition = "TEXT")
+    private String transform;
+
     @CreationTimestamp
     private LocalDateTime createdAt;
 
+    @UpdateTimestamp
+    private LocalDateTime updatedAt;
+
     public Destination() {
     }
 
@@ -104,6 +154,70 @@ public class Destination {
         this.rateLimitRps = rateLimitRps;
     }
 
+    public Integer getIngestQuotaRps() {
+        return ingestQuotaRps;
+    }
+
+    public void setIngestQuotaRps(Integer ingestQuotaRps) {
+        this.ingestQuotaRps = ingestQuotaRps;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public void setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+
+    public int getRetryBaseDelayMs() {
+        return retryBaseDelayMs;
+    }
+
+    public void setRetryBaseDelayMs(int retryBaseDelayMs) {
+        this.retryBaseDelayMs = retryBaseDelayMs;
+    }
+
+    public int getRetryMaxDelayMs() {
+        return retryMaxDelayMs;
+    }
+
+    public void setRetryMaxDelayMs(int retryMaxDelayMs) {
+        this.retryMaxDelayMs = retryMaxDelayMs;
+    }
+
+    public boolean isBatchEnabled() {
+        return batchEnabled;
+    }
+
+    public void setBatchEnabled(boolean batchEnabled) {
+        this.batchEnabled = batchEnabled;
+    }
+
+    public Integer getBatchMaxEvents() {
+        return batchMaxEvents;
+    }
+
+    public void setBatchMaxEvents(Integer batchMaxEvents) {
+        this.batchMaxEvents = batchMaxEvents;
+    }
+
+    public Integer getBatchMaxBytes() {
+        return batchMaxBytes;
+    }
+
+    public void setBatchMaxBytes(Integer batchMaxBytes) {
+        this.batchMaxBytes = batchMaxBytes;
+    }
+
+    public Integer getBatchLingerMs() {
+        return batchLingerMs;
+    }
+
+    public void setBatchLingerMs(Integer batchLingerMs) {
+        this.batchLingerMs = batchLingerMs;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -111,4 +225,52 @@ public class Destination {
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public ResponseCapture getResponseCapture() {
+        return responseCapture;
+    }
+
+    public void setResponseCapture(ResponseCapture responseCapture) {
+        this.responseCapture = responseCapture;
+    }
+
+    public int getResponseCaptureBytes() {
+        return responseCaptureBytes;
+    }
+
+    public void setResponseCaptureBytes(int responseCaptureBytes) {
+        this.responseCaptureBytes = responseCaptureBytes;
+    }
+
+    public boolean isResponseCaptureOnFailure() {
+        return responseCaptureOnFailure;
+    }
+
+    public void setResponseCaptureOnFailure(boolean responseCaptureOnFailure) {
+        this.responseCaptureOnFailure = responseCaptureOnFailure;
+    }
+
+    public String getHomeRegion() {
+        return homeRegion;
+    }
+
+    public void setHomeRegion(String homeRegion) {
+        this.homeRegion = homeRegion;
+    }
+
+    public String getTransform() {
+        return transform;
+    }
+
+    public void setTransform(String transform) {
+        this.transform = transform;
+    }
 }
@@ -12,7 +12,7 @@ import java.util.UUID;
 public class Event {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
 
     @Column(columnDefinition = "TEXT", nullable = false)
@@ -22,6 +22,10 @@ public class Event {
     @Column(nullable = false)
     private EventStatus status;
 
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private EventPriority priority = EventPriority.NORMAL;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "destination_id")
     private Destination destination;
@@ -29,6 +33,18 @@ public class Event {
     @Column(name = "idempotency_key")
     private String idempotencyKey;
 
+    // Only set while PROCESSING - past this the reaper re-enqueues the event
+    @Column(name = "lease_expires_at")
+    private LocalDateTime leaseExpiresAt;
+
+    // Failed attempts so far - the message carries it too, this is what the reaper goes by
+    @Column(name = "attempt_count", nullable = false)
+    private int attemptCount;
+
+    // Scheduled delivery time, null for immediate delivery
+    @Column(name = "deliver_at")
+    private LocalDateTime deliverAt;
+
     @CreationTimestamp
     private LocalDateTime createdAt;
 
@@ -68,6 +84,14 @@ public class Event {
         this.status = status;
     }
 
+    public EventPriority getPriority() {
+        return priority;
+    }
+
+    public void setPriority(EventPriority priority) {
+        this.priority = priority;
+    }
+
     public Destination getDestination() {
         return destination;
     }
@@ -99,4 +123,28 @@ public class Event {
     public void setIdempotencyKey(String idempotencyKey) {
         this.idempotencyKey = idempotencyKey;
     }
+
+    public LocalDateTime getLeaseExpiresAt() {
+        return leaseExpiresAt;
+    }
+
+    public void setLeaseExpiresAt(LocalDateTime leaseExpiresAt) {
+        this.leaseExpiresAt = leaseExpiresAt;
+    }
+
+    public LocalDateTime getDeliverAt() {
+        return deliverAt;
+    }
+
+    public void setDeliverAt(LocalDateTime deliverAt) {
+        this.deliverAt = deliverAt;
+    }
+
+    public int getAttemptCount() {
+        return attemptCount;
+    }
+
+    public void setAttemptCount(int attemptCount) {
+        this.attemptCount = attemptCount;
+    }
 }
@@ -0,0 +1,7 @@
+package com.eventdelivery.platform.model;
+
+public enum EventPriority {
+    HIGH,
+    NORMAL,
+    LOW
+}
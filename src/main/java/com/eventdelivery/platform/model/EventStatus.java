@@ -1,9 +1,12 @@
 package com.eventdelivery.platform.model;
 
 public enum EventStatus {
+    SCHEDULED, // waiting for deliverAt
     RECEIVED,
     PROCESSING,
     DELIVERED,
     FAILED,
-    PERMANENTLY_FAILED
+    PERMANENTLY_FAILED,
+    DUPLICATE, // same idempotency key already delivered via another region
+    SKIPPED // filtered out by the destination's transform rules
 }
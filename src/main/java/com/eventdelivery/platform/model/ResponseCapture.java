@@ -0,0 +1,8 @@
+package com.eventdelivery.platform.model;
+
+// How much of a receiver's response is kept on the delivery attempt
+public enum ResponseCapture {
+    NONE, // status code only
+    STATUS_ONLY, // status code and status text
+    PREFIX // status code and the first responseCaptureBytes of the body
+}
@@ -0,0 +1,47 @@
+package com.eventdelivery.platform.model;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+import java.security.SecureRandom;
+import java.util.EnumSet;
+import java.util.UUID;
+
+/**
+ * 48-bit unix millis, then version/variant bits and 74 random bits. Ids from
+ * the same millisecond aren't ordered among themselves, which is fine for
+ * index locality.
+ */
+public class UuidV7Generator implements BeforeExecutionGenerator {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+            EventType eventType) {
+        return next();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+
+    public static UUID next() {
+        byte[] random = new byte[10];
+        RANDOM.nextBytes(random);
+
+        long msb = (System.currentTimeMillis() & 0xFFFFFFFFFFFFL) << 16;
+        msb |= 0x7000L; // version 7
+        msb |= ((random[0] & 0x0FL) << 8) | (random[1] & 0xFFL);
+
+        long lsb = 0;
+        for (int i = 2; i < 10; i++) {
+            lsb = (lsb << 8) | (random[i] & 0xFFL);
+        }
+        lsb = (lsb & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L; // IETF variant
+        return new UUID(msb, lsb);
+    }
+}
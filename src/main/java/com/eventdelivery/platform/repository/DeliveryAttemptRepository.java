@@ -1,11 +1,41 @@
 package com.eventdelivery.platform.repository;
 
 import com.eventdelivery.platform.model.DeliveryAttempt;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface DeliveryAttemptRepository extends JpaRepository<DeliveryAttempt, UUID> {
+
+    String VIEW = "SELECT a.id AS id, a.event.id AS eventId, a.destinationId AS destinationId, "
+            + "a.responseCode AS responseCode, a.responseBody AS responseBody, a.success AS success, "
+            + "a.attemptedAt AS attemptedAt, a.durationMs AS durationMs FROM DeliveryAttempt a ";
+
+    // Keyset pagination, newest first. The "after" variants continue from the
+    // last (attemptedAt, id) of the previous page so deep pages stay index-only.
+
+    @Query(VIEW + "WHERE a.event.id = :eventId ORDER BY a.attemptedAt DESC, a.id DESC")
+    List<DeliveryAttemptView> findByEvent(UUID eventId, Limit limit);
+
+    @Query(VIEW + "WHERE a.event.id = :eventId "
+            + "AND (a.attemptedAt < :cursorAt OR (a.attemptedAt = :cursorAt AND a.id < :cursorId)) "
+            + "ORDER BY a.attemptedAt DESC, a.id DESC")
+    List<DeliveryAttemptView> findByEventAfter(UUID eventId, LocalDateTime cursorAt, UUID cursorId, Limit limit);
+
+    @Query(VIEW + "WHERE a.destinationId = :destinationId AND a.attemptedAt >= :from AND a.attemptedAt < :to "
+            + "ORDER BY a.attemptedAt DESC, a.id DESC")
+    List<DeliveryAttemptView> findByDestination(UUID destinationId, LocalDateTime from, LocalDateTime to,
+            Limit limit);
+
+    @Query(VIEW + "WHERE a.destinationId = :destinationId AND a.attemptedAt >= :from "
+            + "AND (a.attemptedAt < :cursorAt OR (a.attemptedAt = :cursorAt AND a.id < :cursorId)) "
+            + "ORDER BY a.attemptedAt DESC, a.id DESC")
+    List<DeliveryAttemptView> findByDestinationAfter(UUID destinationId, LocalDateTime from,
+            LocalDateTime cursorAt, UUID cursorId, Limit limit);
 }
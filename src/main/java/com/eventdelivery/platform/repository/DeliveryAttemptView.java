@@ -0,0 +1,22 @@
+package com.eventdelivery.platform.repository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public interface DeliveryAttemptView {
+    UUID getId();
+
+    UUID getEventId();
+
+    UUID getDestinationId();
+
+    int getResponseCode();
+
+    String getResponseBody();
+
+    boolean isSuccess();
+
+    LocalDateTime getAttemptedAt();
+
+    long getDurationMs();
+}
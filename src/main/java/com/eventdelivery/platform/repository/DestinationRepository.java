@@ -1,11 +1,43 @@
 package com.eventdelivery.platform.repository;
 
 import com.eventdelivery.platform.model.Destination;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface DestinationRepository extends JpaRepository<Destination, UUID> {
+
+    String SUMMARY = "SELECT d.id AS id, d.name AS name, d.url AS url, d.httpMethod AS httpMethod, "
+            + "d.rateLimitRps AS rateLimitRps, d.batchEnabled AS batchEnabled, d.homeRegion AS homeRegion, "
+            + "d.createdAt AS createdAt, d.updatedAt AS updatedAt FROM Destination d ";
+
+    // Keyset pagination on the primary key, so page N costs the same as page 1
+    @Query(SUMMARY + "ORDER BY d.id")
+    List<DestinationSummary> findSummaries(Limit limit);
+
+    @Query(SUMMARY + "WHERE d.id > :afterId ORDER BY d.id")
+    List<DestinationSummary> findSummariesAfter(UUID afterId, Limit limit);
+
+    // For streaming exports - needs an open transaction, and the fetch size keeps
+    // the driver from buffering the whole result
+    @Query(SUMMARY + "ORDER BY d.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<DestinationSummary> streamSummaries();
+
+    // Read-write on purpose: the dispatcher must not miss a just-created destination
+    // on a lagging replica. Read-only callers get the replica via their own transaction
+    @Override
+    @Transactional
+    Optional<Destination> findById(UUID id);
 }
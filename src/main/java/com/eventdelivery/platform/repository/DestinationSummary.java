@@ -0,0 +1,25 @@
+package com.eventdelivery.platform.repository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Listing view of a destination - no signing secret or custom headers
+public interface DestinationSummary {
+    UUID getId();
+
+    String getName();
+
+    String getUrl();
+
+    String getHttpMethod();
+
+    Integer getRateLimitRps();
+
+    boolean isBatchEnabled();
+
+    String getHomeRegion();
+
+    LocalDateTime getCreatedAt();
+
+    LocalDateTime getUpdatedAt();
+}
@@ -3,21 +3,99 @@ package com.eventdelivery.platform.repository;
 import com.eventdelivery.platform.model.Event;
 import com.eventdelivery.platform.model.EventStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface EventRepository extends JpaRepository<Event, UUID> {
+
+    // CRUD reads default to read-only transactions, which the replica routing would
+    // send to a replica. Keep these on the primary - ingest and the dispatcher use them
+    @Override
+    @Transactional
+    Optional<Event> findById(UUID id);
+
+    @Override
+    @Transactional
+    boolean existsById(UUID id);
+
     List<Event> findByStatus(EventStatus status);
 
     Optional<Event> findByIdempotencyKeyAndDestinationId(String idempotencyKey, UUID destinationId);
 
-    // Basic replay query - could use Specifications for more complex filters
-    @Query("SELECT e FROM Event e WHERE e.destination.id = :destinationId AND (:status IS NULL OR e.status = :status) AND e.createdAt >= :startDate")
-    List<Event> findReplayCandidates(UUID destinationId, EventStatus status, LocalDateTime startDate);
+    // Replay queries. Two variants instead of "(:status IS NULL OR ...)" so each
+    // gets a plan on its own index (idx_events_destination_created / _status_created)
+    @Query("SELECT e FROM Event e WHERE e.destination.id = :destinationId AND e.createdAt >= :startDate "
+            + "ORDER BY e.createdAt, e.id")
+    List<Event> findReplayCandidates(UUID destinationId, LocalDateTime startDate);
+
+    @Query("SELECT e FROM Event e WHERE e.destination.id = :destinationId AND e.status = :status "
+            + "AND e.createdAt >= :startDate ORDER BY e.createdAt")
+    List<Event> findReplayCandidatesByStatus(UUID destinationId, EventStatus status, LocalDateTime startDate);
+
+    @Query("SELECT e.id AS id, e.status AS status, e.createdAt AS createdAt, e.updatedAt AS updatedAt, "
+            + "e.deliverAt AS deliverAt, a.responseCode AS lastResponseCode, a.success AS lastAttemptSuccess, "
+            + "a.attemptedAt AS lastAttemptAt, a.durationMs AS lastAttemptDurationMs "
+            + "FROM Event e LEFT JOIN DeliveryAttempt a ON a.event = e AND a.attemptedAt = "
+            + "(SELECT MAX(a2.attemptedAt) FROM DeliveryAttempt a2 WHERE a2.event = e) "
+            + "WHERE e.id IN :ids")
+    List<EventStatusView> findStatusViews(Collection<UUID> ids);
+
+    // Dispatcher pickup: PROCESSING plus a fresh lease, without loading the entity.
+    // 0 rows means the event is gone or already delivered
+    @Modifying
+    @Transactional
+    @Query("UPDATE Event e SET e.status = com.eventdelivery.platform.model.EventStatus.PROCESSING, "
+            + "e.leaseExpiresAt = :leaseExpiresAt, e.updatedAt = LOCAL DATETIME "
+            + "WHERE e.id = :id AND e.status <> com.eventdelivery.platform.model.EventStatus.DELIVERED")
+    int claimForDelivery(UUID id, LocalDateTime leaseExpiresAt);
+
+    // Bulk status change - skips dirty checking so updatedAt is set here explicitly.
+    // Used to leave PROCESSING, so the lease goes too
+    @Modifying
+    @Transactional
+    @Query("UPDATE Event e SET e.status = :status, e.leaseExpiresAt = NULL, e.updatedAt = LOCAL DATETIME "
+            + "WHERE e.id IN :ids")
+    int updateStatus(Collection<UUID> ids, EventStatus status);
+
+    // Redrive: PERMANENTLY_FAILED -> FAILED with a fresh attempt count, like the redriven message
+    @Modifying
+    @Transactional
+    @Query("UPDATE Event e SET e.status = com.eventdelivery.platform.model.EventStatus.FAILED, "
+            + "e.leaseExpiresAt = NULL, e.attemptCount = 0, e.updatedAt = LOCAL DATETIME "
+            + "WHERE e.id IN :ids AND e.status = com.eventdelivery.platform.model.EventStatus.PERMANENTLY_FAILED")
+    int markRedriven(Collection<UUID> ids);
+
+    // Same, but only rows still in the expected status - for writers that can race the dispatcher
+    @Modifying
+    @Transactional
+    @Query("UPDATE Event e SET e.status = :status, e.leaseExpiresAt = NULL, e.updatedAt = LOCAL DATETIME "
+            + "WHERE e.id IN :ids AND e.status = :expected")
+    int updateStatusIf(Collection<UUID> ids, EventStatus expected, EventStatus status);
+
+    // The other way round: every row except those already in the excluded status
+    @Modifying
+    @Transactional
+    @Query("UPDATE Event e SET e.status = :status, e.leaseExpiresAt = NULL, e.updatedAt = LOCAL DATETIME "
+            + "WHERE e.id IN :ids AND e.status <> :excluded")
+    int updateStatusUnless(Collection<UUID> ids, EventStatus excluded, EventStatus status);
+
+    // PROCESSING -> FAILED for a retry that's been parked, counting the failed attempt. The
+    // lease runs until after the retry is due, so if the parked copy is lost the reaper
+    // brings the event back
+    @Modifying
+    @Transactional
+    @Query("UPDATE Event e SET e.status = com.eventdelivery.platform.model.EventStatus.FAILED, "
+            + "e.leaseExpiresAt = :leaseExpiresAt, e.attemptCount = e.attemptCount + 1, "
+            + "e.updatedAt = LOCAL DATETIME "
+            + "WHERE e.id IN :ids AND e.status = com.eventdelivery.platform.model.EventStatus.PROCESSING")
+    int markRetrying(Collection<UUID> ids, LocalDateTime leaseExpiresAt);
 }
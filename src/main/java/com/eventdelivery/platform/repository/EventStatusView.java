@@ -0,0 +1,30 @@
+package com.eventdelivery.platform.repository;
+
+import com.eventdelivery.platform.model.EventStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Status-only projection of an event plus its latest delivery attempt.
+ * Never selects the payload column.
+ */
+public interface EventStatusView {
+    UUID getId();
+
+    EventStatus getStatus();
+
+    LocalDateTime getCreatedAt();
+
+    LocalDateTime getUpdatedAt();
+
+    LocalDateTime getDeliverAt();
+
+    Integer getLastResponseCode();
+
+    Boolean getLastAttemptSuccess();
+
+    LocalDateTime getLastAttemptAt();
+
+    Long getLastAttemptDurationMs();
+}
@@ -0,0 +1,229 @@
+package com.eventdelivery.platform.service;
+
+import com.eventdelivery.platform.model.Destination;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.ConsumptionProbe;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.ListOffsetsResult;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides whether ingest should accept more work.
+ *
+ * The expensive signals (producer buffer usage, consumer lag) are sampled on a
+ * schedule so the per-request check only reads a few fields. When a signal is
+ * over its limit the request is shed with 429 + Retry-After instead of piling
+ * more records into the producer buffer.
+ */
+@Service
+public class AdmissionControlService {
+
+    private static final Logger log = LoggerFactory.getLogger(AdmissionControlService.class);
+
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final KafkaProducerService kafkaProducerService;
+    private final KafkaAdmin kafkaAdmin;
+    private final ObjectProvider<HikariDataSource> dataSource;
+    private final RateLimiterService rateLimiterService;
+    private final MeterRegistry meterRegistry;
+
+    private final boolean enabled;
+    private final double producerBufferThreshold;
+    private final int maxInFlightSends;
+    private final int dbWaitingThreshold;
+    private final long maxConsumerLag;
+    private final String consumerGroup;
+    private final Set<String> liveTopics;
+    private final long retryAfterSeconds;
+    private final long lagRetryAfterSeconds;
+
+    private volatile double producerBufferUsage;
+    private volatile long consumerLag;
+    private AdminClient adminClient;
+
+    public AdmissionControlService(KafkaTemplate<String, String> kafkaTemplate,
+            KafkaProducerService kafkaProducerService,
+            KafkaAdmin kafkaAdmin,
+            ObjectProvider<HikariDataSource> dataSource,
+            RateLimiterService rateLimiterService,
+            MeterRegistry meterRegistry,
+            RegionRouter regionRouter,
+            @Value("${edp.admission.enabled:true}") boolean enabled,
+            @Value("${edp.admission.producer-buffer-threshold:0.9}") double producerBufferThreshold,
+            @Value("${edp.admission.max-in-flight-sends:8000}") int maxInFlightSends,
+            @Value("${edp.admission.db-waiting-threshold:5}") int dbWaitingThreshold,
+            @Value("${edp.admission.max-consumer-lag:100000}") long maxConsumerLag,
+            @Value("${edp.admission.retry-after-seconds:1}") long retryAfterSeconds,
+            @Value("${edp.admission.lag-retry-after-seconds:30}") long lagRetryAfterSeconds) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.kafkaProducerService = kafkaProducerService;
+        this.kafkaAdmin = kafkaAdmin;
+        this.dataSource = dataSource;
+        this.rateLimiterService = rateLimiterService;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.producerBufferThreshold = producerBufferThreshold;
+        this.maxInFlightSends = maxInFlightSends;
+        this.dbWaitingThreshold = dbWaitingThreshold;
+        this.maxConsumerLag = maxConsumerLag;
+        this.consumerGroup = regionRouter.consumerGroup();
+        // The bulk lane, isolated topics and the DLT share the group but are allowed to
+        // back up without it meaning the dispatchers can't keep up with live traffic
+        this.liveTopics = Set.of(regionRouter.localTopic(KafkaProducerService.TOPIC_HIGH),
+                regionRouter.localTopic(KafkaProducerService.TOPIC_NORMAL));
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.lagRetryAfterSeconds = lagRetryAfterSeconds;
+    }
+
+    /**
+     * System-wide check. Call before touching the DB so a saturated pool
+     * doesn't make us wait for a connection just to reject the request.
+     */
+    public void checkCapacity() {
+        if (!enabled) {
+            return;
+        }
+        if (producerBufferUsage >= producerBufferThreshold) {
+            reject("producer_buffer", retryAfterSeconds);
+        }
+        if (kafkaProducerService.getInFlightSends() >= maxInFlightSends) {
+            reject("in_flight_sends", retryAfterSeconds);
+        }
+        HikariDataSource hikari = dataSource.getIfUnique();
+        if (hikari != null) {
+            HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+            if (pool != null && pool.getThreadsAwaitingConnection() >= dbWaitingThreshold) {
+                reject("db_pool", retryAfterSeconds);
+            }
+        }
+        if (consumerLag >= maxConsumerLag) {
+            reject("consumer_lag", lagRetryAfterSeconds);
+        }
+    }
+
+    /**
+     * Per-destination ingest quota. Retry-After is when the bucket next has a token.
+     */
+    public void checkQuota(Destination destination) {
+        Integer quota = destination.getIngestQuotaRps();
+        if (!enabled || quota == null || quota <= 0) {
+            return;
+        }
+        Bucket bucket = rateLimiterService.resolveIngestBucket(destination.getId(), quota);
+        ConsumptionProbe probe = bucket.tryConsumeAndReturnRemaining(1);
+        if (!probe.isConsumed()) {
+            long waitSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(probe.getNanosToWaitForRefill()) + 1);
+            reject("destination_quota", waitSeconds);
+        }
+    }
+
+    private void reject(String reason, long retryAfter) {
+        meterRegistry.counter("edp.ingest.rejected", "reason", reason).increment();
+        throw new OverloadedException("Ingest overloaded: " + reason, retryAfter);
+    }
+
+    @Scheduled(fixedDelayString = "${edp.admission.buffer-check-interval-ms:1000}")
+    public void sampleProducerBuffer() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            double total = 0;
+            double available = 0;
+            for (Map.Entry<MetricName, ? extends Metric> entry : kafkaTemplate.metrics().entrySet()) {
+                String name = entry.getKey().name();
+                if (!"producer-metrics".equals(entry.getKey().group())) {
+                    continue;
+                }
+                if ("buffer-total-bytes".equals(name)) {
+                    total += toDouble(entry.getValue().metricValue());
+                } else if ("buffer-available-bytes".equals(name)) {
+                    available += toDouble(entry.getValue().metricValue());
+                }
+            }
+            producerBufferUsage = total > 0 ? 1.0 - (available / total) : 0;
+        } catch (Exception e) {
+            log.debug("Could not sample producer buffer metrics: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${edp.admission.lag-check-interval-ms:10000}")
+    public void sampleConsumerLag() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            AdminClient admin = adminClient();
+            Map<TopicPartition, OffsetAndMetadata> committed = admin.listConsumerGroupOffsets(consumerGroup)
+                    .partitionsToOffsetAndMetadata().get(5, TimeUnit.SECONDS);
+
+            Map<TopicPartition, OffsetSpec> latest = new HashMap<>();
+            committed.forEach((tp, offset) -> {
+                if (offset != null && liveTopics.contains(tp.topic())) {
+                    latest.put(tp, OffsetSpec.latest());
+                }
+            });
+            if (latest.isEmpty()) {
+                consumerLag = 0;
+                return;
+            }
+
+            Map<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> ends = admin.listOffsets(latest).all()
+                    .get(5, TimeUnit.SECONDS);
+            long lag = 0;
+            for (Map.Entry<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> end : ends.entrySet()) {
+                lag += Math.max(0, end.getValue().offset() - committed.get(end.getKey()).offset());
+            }
+            consumerLag = lag;
+        } catch (Exception e) {
+            log.debug("Could not sample consumer lag: {}", e.getMessage());
+        }
+    }
+
+    public double getProducerBufferUsage() {
+        return producerBufferUsage;
+    }
+
+    public long getConsumerLag() {
+        return consumerLag;
+    }
+
+    private synchronized AdminClient adminClient() {
+        if (adminClient == null) {
+            adminClient = AdminClient.create(kafkaAdmin.getConfigurationProperties());
+        }
+        return adminClient;
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (adminClient != null) {
+            adminClient.close();
+        }
+    }
+
+    private static double toDouble(Object value) {
+        return value instanceof Number number ? number.doubleValue() : 0;
+    }
+}
@@ -0,0 +1,447 @@
+package com.eventdelivery.platform.service;
+
+import com.eventdelivery.platform.dto.EventMessage;
+import com.eventdelivery.platform.model.DeliveryAttempt;
+import com.eventdelivery.platform.model.Destination;
+import com.eventdelivery.platform.model.Event;
+import com.eventdelivery.platform.model.EventStatus;
+import com.eventdelivery.platform.repository.DeliveryAttemptRepository;
+import com.eventdelivery.platform.repository.EventRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClient;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Aggregates events for destinations with batching enabled and delivers them
+ * as a single signed JSON array request.
+ *
+ * A batch is flushed when it reaches the destination's max events or max bytes,
+ * or when its oldest event has waited longer than the linger time. Receivers
+ * can report partial failure by answering 207 with {"failed": ["event-id", ...]}.
+ *
+ * Buffered events already have their Kafka offsets committed; what keeps them
+ * safe is their PROCESSING lease, which the reaper recovers if this node dies.
+ * The buffer is bounded: past {@code max-pending} events {@link LaneGovernor}
+ * pauses the lane listeners until it's down to half. Whatever is left at
+ * shutdown is flushed, rate limits aside.
+ */
+@Service
+public class BatchDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchDispatcher.class);
+
+    private static final int DEFAULT_MAX_EVENTS = 100;
+    private static final int DEFAULT_MAX_BYTES = 256 * 1024;
+    private static final int DEFAULT_LINGER_MS = 200;
+
+    private final EventRepository eventRepository;
+    private final DeliveryAttemptRepository deliveryAttemptRepository;
+    private final RateLimiterService rateLimiterService;
+    private final RequestTemplateCache requestTemplateCache;
+    private final KafkaProducerService kafkaProducerService;
+    private final ObjectMapper objectMapper;
+    private final EventStatusCache eventStatusCache;
+    private final DeliveryStatsService deliveryStatsService;
+    private final RetryScheduler retryScheduler;
+    private final DispatcherReadiness dispatcherReadiness;
+    private final LeaseReaper leaseReaper;
+    private final RestClient restClient;
+    // Linger flushes run here, not on the shared scheduler thread - a slow receiver
+    // would otherwise hold up every other @Scheduled job
+    private final ThreadPoolExecutor flushExecutor;
+
+    private final Map<UUID, PendingBatch> pending = new ConcurrentHashMap<>();
+    private final AtomicInteger pendingEvents = new AtomicInteger();
+    private final int maxPending;
+    private final long shutdownTimeoutMs;
+    private volatile boolean backedUp;
+
+    public BatchDispatcher(EventRepository eventRepository,
+            DeliveryAttemptRepository deliveryAttemptRepository,
+            RateLimiterService rateLimiterService,
+            RequestTemplateCache requestTemplateCache,
+            KafkaProducerService kafkaProducerService,
+            ObjectMapper objectMapper,
+            EventStatusCache eventStatusCache,
+            DeliveryStatsService deliveryStatsService,
+            RetryScheduler retryScheduler,
+            DispatcherReadiness dispatcherReadiness,
+            LeaseReaper leaseReaper,
+            @Value("${edp.batch.flush-threads:4}") int flushThreads,
+            @Value("${edp.batch.flush-queue:1000}") int flushQueue,
+            @Value("${edp.batch.connect-timeout-ms:5000}") long connectTimeoutMs,
+            @Value("${edp.batch.read-timeout-ms:30000}") long readTimeoutMs,
+            @Value("${edp.batch.max-pending:20000}") int maxPending,
+            @Value("${edp.batch.shutdown-timeout-ms:10000}") long shutdownTimeoutMs) {
+        this.eventRepository = eventRepository;
+        this.deliveryAttemptRepository = deliveryAttemptRepository;
+        this.rateLimiterService = rateLimiterService;
+        this.requestTemplateCache = requestTemplateCache;
+        this.kafkaProducerService = kafkaProducerService;
+        this.objectMapper = objectMapper;
+        this.eventStatusCache = eventStatusCache;
+        this.deliveryStatsService = deliveryStatsService;
+        this.retryScheduler = retryScheduler;
+        this.dispatcherReadiness = dispatcherReadiness;
+        this.leaseReaper = leaseReaper;
+        this.maxPending = maxPending;
+        this.shutdownTimeoutMs = shutdownTimeoutMs;
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .build());
+        requestFactory.setReadTimeout(Duration.ofMillis(readTimeoutMs));
+        this.restClient = RestClient.builder().requestFactory(requestFactory).build();
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.flushExecutor = new ThreadPoolExecutor(flushThreads, flushThreads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(flushQueue), r -> {
+                    Thread thread = new Thread(r, "batch-flush-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Same as {@link DispatcherWorker#primeConnection}, for this client's own pool.
+     */
+    public void primeConnection(URI origin) {
+        restClient.head().uri(origin).exchange((request, response) -> null);
+    }
+
+    // payload is what goes into the batch body - the message's, after the destination's transform
+    public void enqueue(Destination destination, Event event, EventMessage message, String payload) {
+        PendingBatch batch = pending.computeIfAbsent(destination.getId(), id -> new PendingBatch());
+        boolean full;
+        synchronized (batch) {
+            batch.destination = destination;
+            batch.add(new Entry(event, message, payload, payload.getBytes(StandardCharsets.UTF_8).length));
+            pendingEvents.incrementAndGet();
+            full = batch.size() >= maxEvents(destination) || batch.bytes >= maxBytes(destination);
+        }
+        if (full) {
+            flush(batch);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${edp.batch.sweep-interval-ms:50}")
+    public void flushExpired() {
+        long now = System.currentTimeMillis();
+        for (PendingBatch batch : pending.values()) {
+            boolean expired;
+            synchronized (batch) {
+                expired = batch.size() > 0 && now - batch.oldestAt >= lingerMs(batch.destination);
+            }
+            // One queued flush per batch at a time, however long its receiver takes
+            if (expired && batch.flushQueued.compareAndSet(false, true)) {
+                try {
+                    flushExecutor.execute(() -> {
+                        try {
+                            flush(batch);
+                        } catch (Exception e) {
+                            log.error("Batch flush failed", e);
+                        } finally {
+                            batch.flushQueued.set(false);
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    // All flush threads busy and the queue full - picked up by a later sweep
+                    batch.flushQueued.set(false);
+                }
+            }
+        }
+    }
+
+    /**
+     * Whether the buffer is over {@code max-pending} - stays true until it's
+     * back down to half, so the lanes don't flap.
+     */
+    public boolean isBackedUp() {
+        int events = pendingEvents.get();
+        if (events >= maxPending) {
+            backedUp = true;
+        } else if (events <= maxPending / 2) {
+            backedUp = false;
+        }
+        return backedUp;
+    }
+
+    // Listeners are stopped by now. Deliver what's buffered instead of leaving it all to the
+    // reaper; anything not sent by the timeout still has its lease
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        flushExecutor.shutdown();
+        long deadline = System.currentTimeMillis() + shutdownTimeoutMs;
+        flushExecutor.awaitTermination(shutdownTimeoutMs, TimeUnit.MILLISECONDS);
+        for (PendingBatch batch : pending.values()) {
+            while (System.currentTimeMillis() < deadline) {
+                Destination destination;
+                List<Entry> entries;
+                synchronized (batch) {
+                    if (batch.size() == 0) {
+                        break;
+                    }
+                    destination = batch.destination;
+                    entries = take(batch, destination);
+                }
+                try {
+                    deliver(destination, entries);
+                } catch (Exception e) {
+                    log.error("Flushing batch for destination {} on shutdown failed", destination.getId(), e);
+                    break;
+                }
+            }
+        }
+        if (pendingEvents.get() > 0) {
+            log.warn("{} batched events not flushed before shutdown, left to the lease reaper", pendingEvents.get());
+        }
+    }
+
+    private void flush(PendingBatch batch) {
+        Destination destination;
+        List<Entry> entries;
+        synchronized (batch) {
+            destination = batch.destination;
+            if (batch.size() == 0) {
+                return;
+            }
+            // One token per HTTP call. Out of tokens? Leave it buffered for the next sweep
+            if (destination.getRateLimitRps() != null && destination.getRateLimitRps() > 0) {
+                io.github.bucket4j.Bucket bucket = rateLimiterService.resolveBucket(destination.getId(),
+                        destination.getRateLimitRps());
+                if (!bucket.tryConsume(1)) {
+                    return;
+                }
+            }
+            entries = take(batch, destination);
+        }
+        deliver(destination, entries);
+    }
+
+    private List<Entry> take(PendingBatch batch, Destination destination) {
+        List<Entry> entries = batch.take(maxEvents(destination), maxBytes(destination));
+        pendingEvents.addAndGet(-entries.size());
+        return entries;
+    }
+
+    private void deliver(Destination destination, List<Entry> entries) {
+        StringBuilder body = new StringBuilder();
+        body.append('[');
+        for (int i = 0; i < entries.size(); i++) {
+            if (i > 0) {
+                body.append(',');
+            }
+            body.append(entries.get(i).payload());
+        }
+        body.append(']');
+        String payload = body.toString();
+
+        long startTime = System.currentTimeMillis();
+        int responseCode;
+        String responseBody;
+        Set<UUID> failedIds = new HashSet<>();
+        boolean retryable = true;
+        Long retryAfterMs = null;
+
+        try {
+            String signature = SignatureUtil.calculateHmac(payload, destination.getSigningSecret());
+            RequestTemplate template = requestTemplateCache.resolve(destination);
+
+            // 207 bodies are parsed for the failed ids; anything else is captured per the destination
+            CapturedResponse response = restClient.method(template.method())
+                    .uri(template.uri())
+                    .headers(h -> h.addAll(template.headers()))
+                    .header("Content-Type", "application/json")
+                    .header("X-Edp-Signature", "sha256=" + signature)
+                    .header("X-Edp-Batch-Size", String.valueOf(entries.size()))
+                    .body(payload)
+                    .exchange((request, clientResponse) -> clientResponse.getStatusCode().value() == 207
+                            ? CapturedResponse.readAll(clientResponse)
+                            : CapturedResponse.read(clientResponse, destination), false);
+
+            responseCode = response.statusCode();
+            responseBody = response.body();
+            if (responseCode == 207) {
+                failedIds.addAll(parseFailedIds(responseBody));
+            } else if (!response.isSuccessful()) {
+                log.error("Batch delivery to destination {} failed: {}", destination.getId(), responseCode);
+                entries.forEach(e -> failedIds.add(e.message().getEventId()));
+                retryable = RetryPolicy.isRetryable(responseCode);
+                retryAfterMs = RetryPolicy.parseRetryAfter(response.retryAfter());
+            }
+        } catch (Exception e) {
+            log.error("Batch delivery to destination {} failed: {}", destination.getId(), e.getMessage());
+            responseCode = 500;
+            responseBody = e.getMessage();
+            retryable = RetryPolicy.isRetryable(e);
+            entries.forEach(entry -> failedIds.add(entry.message().getEventId()));
+        }
+
+        long duration = System.currentTimeMillis() - startTime;
+        String truncatedBody = responseBody != null
+                ? responseBody.substring(0, Math.min(responseBody.length(), destination.getResponseCaptureBytes()))
+                : "";
+
+        List<DeliveryAttempt> attempts = new ArrayList<>(entries.size());
+        List<UUID> delivered = new ArrayList<>();
+        for (Entry entry : entries) {
+            boolean success = !failedIds.contains(entry.message().getEventId());
+            DeliveryAttempt attempt = new DeliveryAttempt(entry.event(), responseCode, truncatedBody, success,
+                    duration);
+            attempt.setDestinationId(destination.getId());
+            attempts.add(attempt);
+            deliveryStatsService.record(destination.getId(), success, duration);
+            if (success) {
+                delivered.add(entry.message().getEventId());
+            }
+        }
+        deliveryAttemptRepository.saveAll(attempts);
+
+        if (!delivered.isEmpty()) {
+            eventRepository.updateStatus(delivered, EventStatus.DELIVERED);
+            dispatcherReadiness.delivered();
+        }
+        log.info("Batch of {} events to destination {}: {} delivered, {} failed", entries.size(),
+                destination.getId(), delivered.size(), entries.size() - delivered.size());
+
+        if (delivered.size() < entries.size()) {
+            handleFailures(destination, entries, failedIds, retryable, retryAfterMs);
+        }
+        // After the status updates, so a concurrent poll can't re-cache the old status
+        eventStatusCache.evictAll(entries.stream().map(e -> e.message().getEventId()).toList());
+    }
+
+    /**
+     * The Kafka offsets for batched events are already committed, so failed
+     * events go through the retry scheduler with a bumped attempt count, or to
+     * the DLT once the destination's attempts run out.
+     */
+    private void handleFailures(Destination destination, List<Entry> entries, Set<UUID> failedIds,
+            boolean retryable, Long retryAfterMs) {
+        List<UUID> retrying = new ArrayList<>();
+        long longestDelayMs = 0;
+        int deadLettered = 0;
+        for (Entry entry : entries) {
+            if (!failedIds.contains(entry.message().getEventId())) {
+                continue;
+            }
+            EventMessage message = entry.message();
+            int nextAttempt = message.getAttemptCount() + 1;
+            if (!retryable || nextAttempt >= destination.getMaxAttempts()) {
+                kafkaProducerService.sendToDeadLetter(message);
+                deadLettered++;
+            } else {
+                long delayMs = RetryPolicy.nextDelayMs(destination, message.getLastDelayMs(), retryAfterMs);
+                message.setAttemptCount(nextAttempt);
+                message.setLastDelayMs(delayMs);
+                retryScheduler.schedule(message, delayMs);
+                retrying.add(message.getEventId());
+                longestDelayMs = Math.max(longestDelayMs, delayMs);
+            }
+        }
+        // After the retries exist, and only where no one has picked the event up again since.
+        // One lease for the lot, past the latest due time
+        if (!retrying.isEmpty()) {
+            eventRepository.markRetrying(retrying, leaseReaper.leaseAfter(longestDelayMs));
+        }
+        if (deadLettered > 0) {
+            log.warn("{} batched events moved to DLT", deadLettered);
+        }
+    }
+
+    private Set<UUID> parseFailedIds(String responseBody) {
+        Set<UUID> ids = new HashSet<>();
+        if (responseBody == null || responseBody.isBlank()) {
+            return ids;
+        }
+        try {
+            JsonNode failed = objectMapper.readTree(responseBody).path("failed");
+            for (JsonNode id : failed) {
+                ids.add(UUID.fromString(id.asText()));
+            }
+        } catch (Exception e) {
+            log.warn("Could not parse partial failure response: {}", e.getMessage());
+        }
+        return ids;
+    }
+
+    private static int maxEvents(Destination destination) {
+        return destination.getBatchMaxEvents() != null ? destination.getBatchMaxEvents() : DEFAULT_MAX_EVENTS;
+    }
+
+    private static int maxBytes(Destination destination) {
+        return destination.getBatchMaxBytes() != null ? destination.getBatchMaxBytes() : DEFAULT_MAX_BYTES;
+    }
+
+    private static int lingerMs(Destination destination) {
+        return destination.getBatchLingerMs() != null ? destination.getBatchLingerMs() : DEFAULT_LINGER_MS;
+    }
+
+    // bytes is the UTF-8 size, what batchMaxBytes is about - not payload.length()
+    private record Entry(Event event, EventMessage message, String payload, int bytes) {
+    }
+
+    private static class PendingBatch {
+        private final Deque<Entry> entries = new ArrayDeque<>();
+        private Destination destination;
+        private long bytes;
+        private long oldestAt;
+        private final AtomicBoolean flushQueued = new AtomicBoolean();
+
+        void add(Entry entry) {
+            if (entries.isEmpty()) {
+                oldestAt = System.currentTimeMillis();
+            }
+            entries.addLast(entry);
+            bytes += entry.bytes();
+        }
+
+        int size() {
+            return entries.size();
+        }
+
+        List<Entry> take(int maxEvents, int maxBytes) {
+            List<Entry> taken = new ArrayList<>();
+            long takenBytes = 0;
+            while (!entries.isEmpty() && taken.size() < maxEvents) {
+                Entry next = entries.peekFirst();
+                // Always take at least one, even if it's bigger than the byte limit on its own
+                if (!taken.isEmpty() && takenBytes + next.bytes() > maxBytes) {
+                    break;
+                }
+                entries.pollFirst();
+                taken.add(next);
+                takenBytes += next.bytes();
+            }
+            bytes -= takenBytes;
+            oldestAt = System.currentTimeMillis();
+            return taken;
+        }
+    }
+}
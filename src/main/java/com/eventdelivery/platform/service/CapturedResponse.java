@@ -0,0 +1,82 @@
+package com.eventdelivery.platform.service;
+
+import com.eventdelivery.platform.model.Destination;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The part of a receiver's response we keep. Used from
+ * {@code RestClient.exchange(..., false)} so the body is read straight off the
+ * stream - at most the destination's capture limit, never the whole thing.
+ */
+public record CapturedResponse(int statusCode, String retryAfter, String body) {
+
+    // Leftover body we still read so the connection can go back to the pool.
+    // Anything longer and the connection is dropped instead
+    private static final int DRAIN_LIMIT = 8192;
+
+    public boolean isSuccessful() {
+        return statusCode >= 200 && statusCode < 300;
+    }
+
+    /**
+     * Captures per the destination's response capture settings and releases the response.
+     */
+    public static CapturedResponse read(ClientHttpResponse response, Destination destination) throws IOException {
+        try {
+            HttpStatusCode status = response.getStatusCode();
+            String body = null;
+            if (!status.is2xxSuccessful() || !destination.isResponseCaptureOnFailure()) {
+                body = switch (destination.getResponseCapture()) {
+                    case NONE -> null;
+                    case STATUS_ONLY -> response.getStatusText();
+                    case PREFIX -> readPrefix(response.getBody(), destination.getResponseCaptureBytes());
+                };
+            }
+            return new CapturedResponse(status.value(), response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER),
+                    body);
+        } finally {
+            release(response);
+        }
+    }
+
+    /**
+     * Reads the whole body, for responses we need to parse (batch 207s).
+     */
+    public static CapturedResponse readAll(ClientHttpResponse response) throws IOException {
+        try {
+            return new CapturedResponse(response.getStatusCode().value(),
+                    response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER),
+                    new String(response.getBody().readAllBytes(), StandardCharsets.UTF_8));
+        } finally {
+            release(response);
+        }
+    }
+
+    // May cut a multi-byte character in half - it's decoded as a replacement char
+    private static String readPrefix(InputStream body, int maxBytes) throws IOException {
+        return new String(body.readNBytes(maxBytes), StandardCharsets.UTF_8);
+    }
+
+    // ClientHttpResponse.close() drains the whole body first, so close the
+    // stream ourselves. Closing it before the end aborts the connection
+    private static void release(ClientHttpResponse response) {
+        try (InputStream body = response.getBody()) {
+            byte[] buffer = new byte[1024];
+            int left = DRAIN_LIMIT;
+            int read;
+            while (left > 0 && (read = body.read(buffer, 0, Math.min(buffer.length, left))) != -1) {
+                left -= read;
+            }
+        } catch (IOException ignored) {
+            // Nothing to keep - the connection just isn't reused
+        } finally {
+            response.close();
+        }
+    }
+}
@@ -0,0 +1,294 @@
+package com.eventdelivery.platform.service;
+
+import com.eventdelivery.platform.dto.DltRedriveRequest;
+import com.eventdelivery.platform.dto.DltRedriveResponse;
+import com.eventdelivery.platform.dto.EventMessage;
+import com.eventdelivery.platform.model.EventPriority;
+import com.eventdelivery.platform.model.EventStatus;
+import com.eventdelivery.platform.repository.EventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.Refill;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndTimestamp;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Everything on the DLT side: marking dead letters as permanently failed and
+ * redriving them back onto the lanes.
+ *
+ * Redrives read the DLT topic directly with their own consumer (seeked by
+ * timestamp) instead of scanning the events table, and are throttled so a
+ * large redrive doesn't flatten a destination that just recovered.
+ */
+@Service
+public class DeadLetterService {
+
+    private static final Logger log = LoggerFactory.getLogger(DeadLetterService.class);
+
+    private final ConsumerFactory<String, String> consumerFactory;
+    private final KafkaProducerService kafkaProducerService;
+    private final EventRepository eventRepository;
+    private final EventStatusCache eventStatusCache;
+    private final ObjectMapper objectMapper;
+    private final RegionRouter regionRouter;
+    private final int defaultRate;
+    private final int maxRate;
+
+    // One redrive at a time, the rest queue up behind it
+    private final ExecutorService redriveExecutor = Executors.newSingleThreadExecutor();
+    private final Map<UUID, RedriveJob> jobs = new ConcurrentHashMap<>();
+
+    public DeadLetterService(ConsumerFactory<String, String> consumerFactory,
+            KafkaProducerService kafkaProducerService,
+            EventRepository eventRepository,
+            EventStatusCache eventStatusCache,
+            ObjectMapper objectMapper,
+            RegionRouter regionRouter,
+            @Value("${edp.dlt.redrive-rate:100}") int defaultRate,
+            @Value("${edp.dlt.redrive-max-rate:1000}") int maxRate) {
+        this.consumerFactory = consumerFactory;
+        this.kafkaProducerService = kafkaProducerService;
+        this.eventRepository = eventRepository;
+        this.eventStatusCache = eventStatusCache;
+        this.objectMapper = objectMapper;
+        this.regionRouter = regionRouter;
+        this.defaultRate = defaultRate;
+        this.maxRate = maxRate;
+    }
+
+    // Whole poll at once: one UPDATE per batch instead of a findById + save per record
+    @KafkaListener(id = "dispatcher-dlt", topics = "#{@regionRouter.localTopic('" + KafkaProducerService.TOPIC_DLT + "')}", groupId = "#{@regionRouter.consumerGroup()}", batch = "true")
+    public void onDeadLetters(List<String> messages) {
+        List<UUID> ids = new ArrayList<>(messages.size());
+        for (String json : messages) {
+            try {
+                ids.add(objectMapper.readValue(json, EventMessage.class).getEventId());
+            } catch (Exception e) {
+                log.error("Unreadable DLT record: {}", json);
+            }
+        }
+        if (ids.isEmpty()) {
+            return;
+        }
+        // A redriven copy may have been delivered since this record was written - leave it DELIVERED
+        eventRepository.updateStatusUnless(ids, EventStatus.DELIVERED, EventStatus.PERMANENTLY_FAILED);
+        eventStatusCache.evictAll(ids);
+        log.warn("{} events moved to DLQ", ids.size());
+    }
+
+    public DltRedriveResponse startRedrive(DltRedriveRequest request) {
+        LocalDateTime end = request.getEndTime() != null ? request.getEndTime() : LocalDateTime.now();
+        LocalDateTime start = request.getStartTime() != null ? request.getStartTime() : end.minusHours(24);
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException("startTime must be before endTime");
+        }
+        int rate = request.getRatePerSecond() != null ? request.getRatePerSecond() : defaultRate;
+        if (rate < 1 || rate > maxRate) {
+            throw new IllegalArgumentException("ratePerSecond must be between 1 and " + maxRate);
+        }
+
+        RedriveJob job = new RedriveJob(request.getDestinationId(), toEpochMs(start), toEpochMs(end),
+                request.getPriority() != null ? request.getPriority() : EventPriority.LOW, rate);
+        // Finished jobs are only kept around for a day
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(24);
+        jobs.values().removeIf(j -> j.finishedAt != null && j.finishedAt.isBefore(cutoff));
+        jobs.put(job.id, job);
+        redriveExecutor.submit(() -> run(job));
+        log.info("Queued DLT redrive {} for destination {} ({} to {}, {}/s)", job.id, job.destinationId, start, end,
+                rate);
+        return job.toResponse();
+    }
+
+    // Jobs live on the node that started them - empty for an unknown id or another node's job
+    public Optional<DltRedriveResponse> getRedrive(UUID id) {
+        return Optional.ofNullable(jobs.get(id)).map(RedriveJob::toResponse);
+    }
+
+    public Optional<DltRedriveResponse> cancelRedrive(UUID id) {
+        return Optional.ofNullable(jobs.get(id)).map(job -> {
+            job.cancelled = true;
+            return job.toResponse();
+        });
+    }
+
+    private void run(RedriveJob job) {
+        if (job.cancelled) {
+            job.finish("CANCELLED", null);
+            return;
+        }
+        job.state = "RUNNING";
+        try {
+            redrive(job);
+            job.finish(job.cancelled ? "CANCELLED" : "COMPLETED", null);
+            log.info("DLT redrive {} finished: scanned {}, redriven {}", job.id, job.scanned, job.redriven);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.finish("CANCELLED", null);
+        } catch (Exception e) {
+            log.error("DLT redrive {} failed", job.id, e);
+            job.finish("FAILED", e.getMessage());
+        }
+    }
+
+    private void redrive(RedriveJob job) throws InterruptedException {
+        Properties overrides = new Properties();
+        overrides.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
+
+        // Own consumer with assign() - never commits, so it doesn't touch the DLT listener's offsets
+        try (Consumer<String, String> consumer = consumerFactory.createConsumer("edp-dlt-redrive", "redrive-",
+                job.id.toString(), overrides)) {
+            List<TopicPartition> partitions = consumer.partitionsFor(regionRouter.localTopic(KafkaProducerService.TOPIC_DLT)).stream()
+                    .map(p -> new TopicPartition(p.topic(), p.partition()))
+                    .toList();
+            // Stop at what was there when we started, not whatever arrives while we run
+            Map<TopicPartition, Long> endOffsets = consumer.endOffsets(partitions);
+            Map<TopicPartition, Long> startTimes = new HashMap<>();
+            partitions.forEach(p -> startTimes.put(p, job.fromMs));
+            Map<TopicPartition, OffsetAndTimestamp> startOffsets = consumer.offsetsForTimes(startTimes);
+
+            Set<TopicPartition> active = new HashSet<>();
+            for (TopicPartition partition : partitions) {
+                OffsetAndTimestamp offset = startOffsets.get(partition);
+                if (offset != null && offset.offset() < endOffsets.get(partition)) {
+                    active.add(partition);
+                }
+            }
+            consumer.assign(active);
+            active.forEach(p -> consumer.seek(p, startOffsets.get(p).offset()));
+
+            Bucket throttle = Bucket.builder()
+                    .addLimit(Bandwidth.classic(job.rate, Refill.greedy(job.rate, Duration.ofSeconds(1))))
+                    .build();
+
+            while (!active.isEmpty() && !job.cancelled) {
+                ConsumerRecords<String, String> records = consumer.poll(Duration.ofMillis(500));
+                Set<TopicPartition> done = new HashSet<>();
+                for (TopicPartition partition : records.partitions()) {
+                    for (ConsumerRecord<String, String> record : records.records(partition)) {
+                        if (record.offset() >= endOffsets.get(partition) || record.timestamp() >= job.toMs) {
+                            done.add(partition);
+                            break;
+                        }
+                        job.scanned.incrementAndGet();
+                        EventMessage message = parse(record.value());
+                        if (message == null
+                                || (job.destinationId != null && !job.destinationId.equals(message.getDestinationId()))) {
+                            continue;
+                        }
+                        // One token per send, so the rate holds at the destination too
+                        throttle.asBlocking().consume(1);
+                        // Keeps region and idempotency key, starts the attempts over
+                        message.setAttemptCount(0);
+                        message.setLastDelayMs(0);
+                        message.setPriority(job.priority);
+                        sendRedriven(job, message);
+                        if (job.cancelled) {
+                            break;
+                        }
+                    }
+                }
+                for (TopicPartition partition : active) {
+                    if (consumer.position(partition) >= endOffsets.get(partition)) {
+                        done.add(partition);
+                    }
+                }
+                if (!done.isEmpty()) {
+                    consumer.pause(done);
+                    active.removeAll(done);
+                }
+            }
+        }
+    }
+
+    // Back to FAILED so status reads as "retrying" rather than dead. Marked before the
+    // send, and only from PERMANENTLY_FAILED, so a dispatcher that already delivered
+    // it never has its DELIVERED overwritten
+    private void sendRedriven(RedriveJob job, EventMessage message) {
+        List<UUID> ids = List.of(message.getEventId());
+        eventRepository.markRedriven(ids);
+        eventStatusCache.evictAll(ids);
+        kafkaProducerService.sendEvent(message);
+        job.redriven.incrementAndGet();
+    }
+
+    private EventMessage parse(String json) {
+        try {
+            return objectMapper.readValue(json, EventMessage.class);
+        } catch (Exception e) {
+            log.warn("Skipping unreadable DLT record during redrive");
+            return null;
+        }
+    }
+
+    private static long toEpochMs(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        redriveExecutor.shutdownNow();
+    }
+
+    private static class RedriveJob {
+        private final UUID id = UUID.randomUUID();
+        private final UUID destinationId;
+        private final long fromMs;
+        private final long toMs;
+        private final EventPriority priority;
+        private final int rate;
+        private final LocalDateTime createdAt = LocalDateTime.now();
+        private final AtomicLong scanned = new AtomicLong();
+        private final AtomicLong redriven = new AtomicLong();
+        private volatile String state = "QUEUED";
+        private volatile boolean cancelled;
+        private volatile LocalDateTime finishedAt;
+        private volatile String error;
+
+        RedriveJob(UUID destinationId, long fromMs, long toMs, EventPriority priority, int rate) {
+            this.destinationId = destinationId;
+            this.fromMs = fromMs;
+            this.toMs = toMs;
+            this.priority = priority;
+            this.rate = rate;
+        }
+
+        void finish(String finalState, String error) {
+            this.error = error;
+            this.finishedAt = LocalDateTime.now();
+            this.state = finalState;
+        }
+
+        DltRedriveResponse toResponse() {
+            return new DltRedriveResponse(id, state, scanned.get(), redriven.get(), createdAt, finishedAt, error);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.eventdelivery.platform.service;
+
+import com.eventdelivery.platform.dto.CursorPage;
+import com.eventdelivery.platform.dto.DestinationStatsResponse;
+import com.eventdelivery.platform.repository.DeliveryAttemptRepository;
+import com.eventdelivery.platform.repository.DeliveryAttemptView;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+@Service
+public class DeliveryAttemptService {
+
+    private static final int DEFAULT_LIMIT = 50;
+    private static final int MAX_LIMIT = 500;
+
+    private final DeliveryAttemptRepository deliveryAttemptRepository;
+    private final DeliveryStatsService deliveryStatsService;
+
+    public DeliveryAttemptService(DeliveryAttemptRepository deliveryAttemptRepository,
+            DeliveryStatsService deliveryStatsService) {
+        this.deliveryAttemptRepository = deliveryAttemptRepository;
+        this.deliveryStatsService = deliveryStatsService;
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<DeliveryAttemptView> getAttemptsForEvent(UUID eventId, Integer limit, String cursor) {
+        int size = pageSize(limit);
+        // Fetch one extra row to know whether there's a next page
+        Limit fetch = Limit.of(size + 1);
+        List<DeliveryAttemptView> rows;
+        if (cursor == null) {
+            rows = deliveryAttemptRepository.findByEvent(eventId, fetch);
+        } else {
+            Cursor c = Cursor.decode(cursor);
+            rows = deliveryAttemptRepository.findByEventAfter(eventId, c.attemptedAt(), c.id(), fetch);
+        }
+        return page(rows, size);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<DeliveryAttemptView> getAttemptsForDestination(UUID destinationId, LocalDateTime from,
+            LocalDateTime to, Integer limit, String cursor) {
+        int size = pageSize(limit);
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = from != null ? from : end.minusHours(24);
+        Limit fetch = Limit.of(size + 1);
+        List<DeliveryAttemptView> rows;
+        if (cursor == null) {
+            rows = deliveryAttemptRepository.findByDestination(destinationId, start, end, fetch);
+        } else {
+            Cursor c = Cursor.decode(cursor);
+            rows = deliveryAttemptRepository.findByDestinationAfter(destinationId, start, c.attemptedAt(), c.id(),
+                    fetch);
+        }
+        return page(rows, size);
+    }
+
+    public DestinationStatsResponse getDestinationStats(UUID destinationId, LocalDateTime from, LocalDateTime to) {
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = from != null ? from : end.minusHours(24);
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+        return deliveryStatsService.getStats(destinationId, start, end);
+    }
+
+    private static CursorPage<DeliveryAttemptView> page(List<DeliveryAttemptView> rows, int size) {
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null);
+        }
+        List<DeliveryAttemptView> items = rows.subList(0, size);
+        DeliveryAttemptView last = items.get(items.size() - 1);
+        return new CursorPage<>(items, new Cursor(last.getAttemptedAt(), last.getId()).encode());
+    }
+
+    private static int pageSize(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+
+    // Opaque to clients: base64 of "<attemptedAt>|<id>"
+    private record Cursor(LocalDateTime attemptedAt, UUID id) {
+        String encode() {
+            String raw = attemptedAt + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int sep = raw.indexOf('|');
+                return new Cursor(LocalDateTime.parse(raw.substring(0, sep)), UUID.fromString(raw.substring(sep + 1)));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+    }
+}
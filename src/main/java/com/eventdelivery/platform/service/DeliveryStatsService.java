@@ -0,0 +1,165 @@
+package com.eventdelivery.platform.service;
+
+import com.eventdelivery.platform.dto.DestinationStatsResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Incremental per-destination delivery stats.
+ *
+ * Attempts are counted in memory per (destination, hour, latency bucket) and
+ * upserted into delivery_attempt_stats every few seconds. Reads sum the hourly
+ * rows for the range, so success rate and p95 never scan delivery_attempts.
+ * p95 is reported as the upper bound of the latency bucket it falls in.
+ */
+@Service
+public class DeliveryStatsService {
+
+    private static final Logger log = LoggerFactory.getLogger(DeliveryStatsService.class);
+
+    // Upper bounds in ms - must match the CASE in V6__delivery_attempt_history.sql
+    static final long[] LATENCY_BOUNDS_MS = { 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000, 30000 };
+
+    private static final String UPSERT = "INSERT INTO delivery_attempt_stats "
+            + "(destination_id, bucket_start, latency_bucket, attempts, successes, total_duration_ms) "
+            + "VALUES (?, ?, ?, ?, ?, ?) "
+            + "ON CONFLICT (destination_id, bucket_start, latency_bucket) DO UPDATE SET "
+            + "attempts = delivery_attempt_stats.attempts + EXCLUDED.attempts, "
+            + "successes = delivery_attempt_stats.successes + EXCLUDED.successes, "
+            + "total_duration_ms = delivery_attempt_stats.total_duration_ms + EXCLUDED.total_duration_ms";
+
+    private static final String RANGE_QUERY = "SELECT latency_bucket, SUM(attempts) AS attempts, "
+            + "SUM(successes) AS successes, SUM(total_duration_ms) AS total_duration_ms "
+            + "FROM delivery_attempt_stats "
+            + "WHERE destination_id = ? AND bucket_start >= ? AND bucket_start < ? "
+            + "GROUP BY latency_bucket";
+
+    private record Key(UUID destinationId, LocalDateTime bucketStart, int latencyBucket) {
+    }
+
+    private static class Counts {
+        private long attempts;
+        private long successes;
+        private long totalDurationMs;
+        private boolean flushed;
+
+        synchronized boolean add(boolean success, long durationMs) {
+            if (flushed) {
+                return false;
+            }
+            attempts++;
+            if (success) {
+                successes++;
+            }
+            totalDurationMs += durationMs;
+            return true;
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<Key, Counts> pending = new ConcurrentHashMap<>();
+
+    public DeliveryStatsService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void record(UUID destinationId, boolean success, long durationMs) {
+        if (destinationId == null) {
+            return;
+        }
+        Key key = new Key(destinationId, LocalDateTime.now().truncatedTo(ChronoUnit.HOURS), latencyBucket(durationMs));
+        // A flush may have claimed the counts we got; just grab the fresh ones
+        while (!pending.computeIfAbsent(key, k -> new Counts()).add(success, durationMs)) {
+            Thread.onSpinWait();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${edp.stats.flush-interval-ms:5000}")
+    public void flush() {
+        List<Object[]> rows = new ArrayList<>();
+        for (Key key : pending.keySet()) {
+            Counts counts = pending.remove(key);
+            if (counts == null) {
+                continue;
+            }
+            synchronized (counts) {
+                counts.flushed = true;
+                if (counts.attempts == 0) {
+                    continue;
+                }
+                rows.add(new Object[] { key.destinationId(), Timestamp.valueOf(key.bucketStart()), key.latencyBucket(),
+                        counts.attempts, counts.successes, counts.totalDurationMs });
+            }
+        }
+        if (rows.isEmpty()) {
+            return;
+        }
+        try {
+            jdbcTemplate.batchUpdate(UPSERT, rows);
+        } catch (Exception e) {
+            // Losing a few seconds of stats beats blocking the dispatcher on it
+            log.error("Failed to flush {} delivery stat rows", rows.size(), e);
+        }
+    }
+
+    public DestinationStatsResponse getStats(UUID destinationId, LocalDateTime from, LocalDateTime to) {
+        long[] histogram = new long[LATENCY_BOUNDS_MS.length + 1];
+        long[] totals = new long[3]; // attempts, successes, duration
+
+        jdbcTemplate.query(RANGE_QUERY, rs -> {
+            int bucket = rs.getInt("latency_bucket");
+            long attempts = rs.getLong("attempts");
+            histogram[bucket] += attempts;
+            totals[0] += attempts;
+            totals[1] += rs.getLong("successes");
+            totals[2] += rs.getLong("total_duration_ms");
+        }, destinationId, Timestamp.valueOf(from.truncatedTo(ChronoUnit.HOURS)), Timestamp.valueOf(to));
+
+        DestinationStatsResponse response = new DestinationStatsResponse();
+        response.setDestinationId(destinationId);
+        response.setFrom(from.truncatedTo(ChronoUnit.HOURS));
+        response.setTo(to);
+        response.setAttempts(totals[0]);
+        response.setSuccesses(totals[1]);
+        if (totals[0] > 0) {
+            response.setSuccessRate((double) totals[1] / totals[0]);
+            response.setAvgDurationMs((double) totals[2] / totals[0]);
+            response.setP95DurationMs(percentile(histogram, totals[0], 0.95));
+        }
+        return response;
+    }
+
+    private static Long percentile(long[] histogram, long total, double quantile) {
+        long rank = (long) Math.ceil(total * quantile);
+        long seen = 0;
+        for (int i = 0; i < histogram.length; i++) {
+            seen += histogram[i];
+            if (seen >= rank) {
+                // Overflow bucket has no upper bound, report the last known one
+                return LATENCY_BOUNDS_MS[Math.min(i, LATENCY_BOUNDS_MS.length - 1)];
+            }
+        }
+        return null;
+    }
+
+    static int latencyBucket(long durationMs) {
+        for (int i = 0; i < LATENCY_BOUNDS_MS.length; i++) {
+            if (durationMs <= LATENCY_BOUNDS_MS[i]) {
+                return i;
+            }
+        }
+        return LATENCY_BOUNDS_MS.length;
+    }
+}
@@ -1,27 +1,60 @@
 package com.eventdelivery.platform.service;
 
+import com.eventdelivery.platform.dto.CursorPage;
 import com.eventdelivery.platform.dto.DestinationRequest;
 import com.eventdelivery.platform.model.Destination;
 import com.eventdelivery.platform.repository.DestinationRepository;
+import com.eventdelivery.platform.repository.DestinationSummary;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Iterator;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Service
 public class DestinationService {
 
+    private static final int DEFAULT_LIMIT = 100;
+    private static final int MAX_LIMIT = 1000;
+
     private final DestinationRepository destinationRepository;
+    private final RequestTemplateCache requestTemplateCache;
+    private final PayloadTransformCache payloadTransformCache;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
 
-    public DestinationService(DestinationRepository destinationRepository) {
+    public DestinationService(DestinationRepository destinationRepository,
+            RequestTemplateCache requestTemplateCache, PayloadTransformCache payloadTransformCache,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager) {
         this.destinationRepository = destinationRepository;
+        this.requestTemplateCache = requestTemplateCache;
+        this.payloadTransformCache = payloadTransformCache;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
     }
 
     public Destination createDestination(DestinationRequest request) {
+        // Fail fast on a bad method, headers JSON or transform instead of on every delivery
+        requestTemplateCache.parseHeaders(request.getHeaders());
+        payloadTransformCache.compile(request.getTransform());
+
         Destination destination = new Destination();
         destination.setName(request.getName());
         destination.setUrl(request.getUrl());
-        destination.setHttpMethod(request.getHttpMethod());
+        destination.setHttpMethod(requestTemplateCache.parseMethod(request.getHttpMethod()).name());
         destination.setHeaders(request.getHeaders());
 
         String secret = request.getSigningSecret();
@@ -35,15 +68,89 @@ public class DestinationService {
             rps = 10;
         }
         destination.setRateLimitRps(rps);
+        destination.setIngestQuotaRps(request.getIngestQuotaRps());
+
+        if (request.getMaxAttempts() != null) {
+            destination.setMaxAttempts(request.getMaxAttempts());
+        }
+        if (request.getRetryBaseDelayMs() != null) {
+            destination.setRetryBaseDelayMs(request.getRetryBaseDelayMs());
+        }
+        if (request.getRetryMaxDelayMs() != null) {
+            destination.setRetryMaxDelayMs(request.getRetryMaxDelayMs());
+        }
+        if (destination.getRetryMaxDelayMs() < destination.getRetryBaseDelayMs()) {
+            throw new IllegalArgumentException("retryMaxDelayMs must be >= retryBaseDelayMs");
+        }
+
+        destination.setBatchEnabled(Boolean.TRUE.equals(request.getBatchEnabled()));
+        destination.setBatchMaxEvents(request.getBatchMaxEvents());
+        destination.setBatchMaxBytes(request.getBatchMaxBytes());
+        destination.setBatchLingerMs(request.getBatchLingerMs());
+        destination.setHomeRegion(request.getHomeRegion());
+
+        if (request.getResponseCapture() != null) {
+            destination.setResponseCapture(request.getResponseCapture());
+        }
+        if (request.getResponseCaptureBytes() != null) {
+            destination.setResponseCaptureBytes(request.getResponseCaptureBytes());
+        }
+        destination.setResponseCaptureOnFailure(Boolean.TRUE.equals(request.getResponseCaptureOnFailure()));
+        destination.setTransform(request.getTransform() == null || request.getTransform().isBlank()
+                ? null : request.getTransform());
 
         return destinationRepository.save(destination);
     }
 
-    public List<Destination> getAllDestinations() {
-        return destinationRepository.findAll();
+    @Transactional(readOnly = true)
+    public CursorPage<DestinationSummary> listDestinations(Integer limit, String cursor) {
+        int size = limit == null ? DEFAULT_LIMIT : Math.max(1, Math.min(limit, MAX_LIMIT));
+        // One extra row tells us whether there's a next page
+        Limit fetch = Limit.of(size + 1);
+        List<DestinationSummary> rows = cursor == null
+                ? destinationRepository.findSummaries(fetch)
+                : destinationRepository.findSummariesAfter(decodeCursor(cursor), fetch);
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null);
+        }
+        List<DestinationSummary> items = rows.subList(0, size);
+        return new CursorPage<>(items, encodeCursor(items.get(items.size() - 1).getId()));
     }
 
+    /**
+     * Every destination as NDJSON, one summary per line. Rows are streamed from
+     * a server-side cursor, so memory stays flat however many there are.
+     */
+    public void streamDestinations(OutputStream out) {
+        readOnlyTransaction.executeWithoutResult(tx -> {
+            try (Stream<DestinationSummary> summaries = destinationRepository.streamSummaries()) {
+                Iterator<DestinationSummary> it = summaries.iterator();
+                while (it.hasNext()) {
+                    out.write(objectMapper.writeValueAsBytes(it.next()));
+                    out.write('\n');
+                }
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    @Transactional(readOnly = true)
     public Destination getDestination(UUID id) {
         return destinationRepository.findById(id).orElseThrow();
     }
+
+    // Opaque to clients: base64 of the last id on the page
+    private static String encodeCursor(UUID id) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(id.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static UUID decodeCursor(String cursor) {
+        try {
+            return UUID.fromString(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
 }
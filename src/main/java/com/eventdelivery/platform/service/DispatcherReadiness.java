@@ -0,0 +1,52 @@
+package com.eventdelivery.platform.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * How long a node takes to become useful, measured from JVM start:
+ * edp.dispatcher.startup.warmed_up once the lane listeners may consume, and
+ * edp.dispatcher.startup.first_delivery at the first successful delivery.
+ */
+@Component
+public class DispatcherReadiness {
+
+    private static final Logger log = LoggerFactory.getLogger(DispatcherReadiness.class);
+
+    private final long jvmStartMs = ManagementFactory.getRuntimeMXBean().getStartTime();
+    private final AtomicBoolean firstDelivery = new AtomicBoolean();
+    private volatile double warmedUpSeconds = Double.NaN;
+    private volatile double firstDeliverySeconds = Double.NaN;
+
+    public DispatcherReadiness(MeterRegistry meterRegistry) {
+        meterRegistry.gauge("edp.dispatcher.startup.warmed_up", this, r -> r.warmedUpSeconds);
+        meterRegistry.gauge("edp.dispatcher.startup.first_delivery", this, r -> r.firstDeliverySeconds);
+    }
+
+    public void warmedUp() {
+        warmedUpSeconds = sinceJvmStart();
+        log.info("Dispatcher ready {}s after JVM start", String.format("%.2f", warmedUpSeconds));
+    }
+
+    public boolean isWarmedUp() {
+        return !Double.isNaN(warmedUpSeconds);
+    }
+
+    // Called on every successful delivery - only the first one does anything
+    public void delivered() {
+        if (firstDelivery.get() || !firstDelivery.compareAndSet(false, true)) {
+            return;
+        }
+        firstDeliverySeconds = sinceJvmStart();
+        log.info("First delivery {}s after JVM start", String.format("%.2f", firstDeliverySeconds));
+    }
+
+    private double sinceJvmStart() {
+        return (System.currentTimeMillis() - jvmStartMs) / 1000.0;
+    }
+}
@@ -0,0 +1,186 @@
+package com.eventdelivery.platform.service;
+
+import com.eventdelivery.platform.dto.EventMessage;
+import com.eventdelivery.platform.model.Destination;
+import com.eventdelivery.platform.model.EventPriority;
+import com.eventdelivery.platform.repository.DestinationRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Warm-up for dispatcher nodes (edp.warmup.enabled, on in the dispatcher
+ * profile). The lane listeners don't auto-start; once the app is ready this
+ * fills the per-destination caches, runs the signing and JSON code a few
+ * thousand times for the JIT, optionally opens connections to receiver hosts,
+ * and only then starts the listeners - so the node joins the consumer group ready to
+ * deliver at full speed instead of taking partitions it's slow to serve.
+ */
+@Component
+public class DispatcherWarmup {
+
+    private static final Logger log = LoggerFactory.getLogger(DispatcherWarmup.class);
+    private static final List<String> LANE_LISTENERS = List.of(LaneGovernor.HIGH_LISTENER_ID,
+            LaneGovernor.NORMAL_LISTENER_ID, LaneGovernor.BULK_LISTENER_ID);
+
+    private final DestinationRepository destinationRepository;
+    private final RequestTemplateCache requestTemplateCache;
+    private final RateLimiterService rateLimiterService;
+    private final DispatcherWorker dispatcherWorker;
+    private final BatchDispatcher batchDispatcher;
+    private final ObjectMapper objectMapper;
+    private final KafkaListenerEndpointRegistry registry;
+    private final DispatcherReadiness dispatcherReadiness;
+    private final boolean enabled;
+    private final int iterations;
+    private final int maxDestinations;
+    private final boolean primeConnections;
+    private final int primeMaxHosts;
+    private final long primeTimeoutMs;
+
+    public DispatcherWarmup(DestinationRepository destinationRepository, RequestTemplateCache requestTemplateCache,
+            RateLimiterService rateLimiterService, DispatcherWorker dispatcherWorker,
+            BatchDispatcher batchDispatcher, ObjectMapper objectMapper,
+            KafkaListenerEndpointRegistry registry, DispatcherReadiness dispatcherReadiness,
+            @Value("${edp.warmup.enabled:false}") boolean enabled,
+            @Value("${edp.warmup.iterations:2000}") int iterations,
+            @Value("${edp.warmup.max-destinations:1000}") int maxDestinations,
+            @Value("${edp.warmup.prime-connections:false}") boolean primeConnections,
+            @Value("${edp.warmup.prime-max-hosts:100}") int primeMaxHosts,
+            @Value("${edp.warmup.prime-timeout-ms:5000}") long primeTimeoutMs) {
+        this.destinationRepository = destinationRepository;
+        this.requestTemplateCache = requestTemplateCache;
+        this.rateLimiterService = rateLimiterService;
+        this.dispatcherWorker = dispatcherWorker;
+        this.batchDispatcher = batchDispatcher;
+        this.objectMapper = objectMapper;
+        this.registry = registry;
+        this.dispatcherReadiness = dispatcherReadiness;
+        this.enabled = enabled;
+        this.iterations = iterations;
+        this.maxDestinations = maxDestinations;
+        this.primeConnections = primeConnections;
+        this.primeMaxHosts = primeMaxHosts;
+        this.primeTimeoutMs = primeTimeoutMs;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!enabled) {
+            // Listeners started with the context, nothing to wait for
+            dispatcherReadiness.warmedUp();
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        try {
+            List<Destination> destinations = preloadDestinations();
+            primeCodePaths();
+            if (primeConnections) {
+                primeConnections(destinations);
+            }
+            log.info("Warm-up done in {}ms ({} destinations)", System.currentTimeMillis() - start,
+                    destinations.size());
+        } catch (Exception e) {
+            // A cold node is still better than one that never consumes
+            log.warn("Warm-up failed after {}ms, starting listeners anyway", System.currentTimeMillis() - start, e);
+        }
+
+        for (String id : LANE_LISTENERS) {
+            MessageListenerContainer container = registry.getListenerContainer(id);
+            if (container != null && !container.isRunning()) {
+                container.start();
+            }
+        }
+        dispatcherReadiness.warmedUp();
+    }
+
+    // Parsed request templates and rate limiter buckets for the first N destinations
+    private List<Destination> preloadDestinations() {
+        List<Destination> destinations = destinationRepository.findAll(PageRequest.of(0, maxDestinations))
+                .getContent();
+        for (Destination destination : destinations) {
+            try {
+                requestTemplateCache.resolve(destination);
+            } catch (Exception e) {
+                log.debug("Skipping destination {} in warm-up: {}", destination.getId(), e.getMessage());
+            }
+            if (destination.getRateLimitRps() != null && destination.getRateLimitRps() > 0) {
+                rateLimiterService.resolveBucket(destination.getId(), destination.getRateLimitRps());
+            }
+        }
+        return destinations;
+    }
+
+    // The per-message work that doesn't touch the network: parse, sign, serialize
+    private void primeCodePaths() throws Exception {
+        EventMessage sample = new EventMessage(UUID.randomUUID(), UUID.randomUUID(), "{\"warmup\":true}", 0,
+                EventPriority.NORMAL);
+        for (int i = 0; i < iterations; i++) {
+            String json = objectMapper.writeValueAsString(sample);
+            EventMessage parsed = objectMapper.readValue(json, EventMessage.class);
+            SignatureUtil.calculateHmac(parsed.getPayload(), "warmup");
+        }
+    }
+
+    // Origin plus which client will deliver there - batch destinations have their own pool
+    private record PrimeTarget(URI origin, boolean batch) {
+    }
+
+    // One connection per receiver host and client, in parallel, bounded by prime-timeout-ms overall.
+    // Off unless prime-connections is set: it's a request the receiver never asked for
+    private void primeConnections(List<Destination> destinations) throws InterruptedException {
+        Set<PrimeTarget> targets = new LinkedHashSet<>();
+        for (Destination destination : destinations) {
+            if (targets.size() >= primeMaxHosts) {
+                break;
+            }
+            try {
+                URI uri = requestTemplateCache.resolve(destination).uri();
+                targets.add(new PrimeTarget(new URI(uri.getScheme(), null, uri.getHost(), uri.getPort(), "/", null,
+                        null), destination.isBatchEnabled()));
+            } catch (Exception e) {
+                log.debug("Can't prime a connection for destination {}: {}", destination.getId(), e.getMessage());
+            }
+        }
+        if (targets.isEmpty()) {
+            return;
+        }
+
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        for (PrimeTarget target : targets) {
+            executor.submit(() -> {
+                try {
+                    if (target.batch()) {
+                        batchDispatcher.primeConnection(target.origin());
+                    } else {
+                        dispatcherWorker.primeConnection(target.origin());
+                    }
+                } catch (Exception e) {
+                    log.debug("Priming {} failed: {}", target.origin(), e.getMessage());
+                }
+            });
+        }
+        executor.shutdown();
+        if (!executor.awaitTermination(primeTimeoutMs, TimeUnit.MILLISECONDS)) {
+            log.info("Connection priming still running after {}ms, not waiting for it", primeTimeoutMs);
+            executor.shutdownNow();
+        }
+    }
+}
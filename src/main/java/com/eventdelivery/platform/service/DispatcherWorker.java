@@ -4,24 +4,32 @@ import com.eventdelivery.platform.dto.EventMessage;
 import com.eventdelivery.platform.model.DeliveryAttempt;
 import com.eventdelivery.platform.model.Destination;
 import com.eventdelivery.platform.model.Event;
+import com.eventdelivery.platform.model.EventPriority;
 import com.eventdelivery.platform.model.EventStatus;
 import com.eventdelivery.platform.repository.DeliveryAttemptRepository;
 import com.eventdelivery.platform.repository.DestinationRepository;
 import com.eventdelivery.platform.repository.EventRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.bucket4j.ConsumptionProbe;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.http.ResponseEntity;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.annotation.KafkaListener;
-import org.springframework.kafka.annotation.RetryableTopic;
-import org.springframework.kafka.retrytopic.DltStrategy;
 import org.springframework.kafka.support.KafkaHeaders;
 import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.messaging.handler.annotation.Payload;
-import org.springframework.retry.annotation.Backoff;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestClient;
 
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
 @Service
 public class DispatcherWorker {
 
@@ -33,126 +41,325 @@ public class DispatcherWorker {
     private final RestClient restClient;
     private final ObjectMapper objectMapper;
     private final RateLimiterService rateLimiterService;
+    private final RequestTemplateCache requestTemplateCache;
+    private final BatchDispatcher batchDispatcher;
+    private final LaneGovernor laneGovernor;
+    private final EventStatusCache eventStatusCache;
+    private final DeliveryStatsService deliveryStatsService;
+    private final RetryScheduler retryScheduler;
+    private final KafkaProducerService kafkaProducerService;
+    private final LeaseReaper leaseReaper;
+    private final RegionRouter regionRouter;
+    private final IdempotencyService idempotencyService;
+    private final HotDestinationTracker hotDestinationTracker;
+    private final DispatcherReadiness dispatcherReadiness;
+    private final PayloadTransformCache payloadTransformCache;
+    private final Counter skippedCounter;
+    private final long missingEventDelayMs;
+    private final int missingEventRetries;
 
     public DispatcherWorker(EventRepository eventRepository,
             DestinationRepository destinationRepository,
             DeliveryAttemptRepository deliveryAttemptRepository,
             ObjectMapper objectMapper,
-            RateLimiterService rateLimiterService) {
+            RateLimiterService rateLimiterService,
+            RequestTemplateCache requestTemplateCache,
+            BatchDispatcher batchDispatcher,
+            LaneGovernor laneGovernor,
+            EventStatusCache eventStatusCache,
+            DeliveryStatsService deliveryStatsService,
+            RetryScheduler retryScheduler,
+            KafkaProducerService kafkaProducerService,
+            LeaseReaper leaseReaper,
+            RegionRouter regionRouter,
+            IdempotencyService idempotencyService,
+            HotDestinationTracker hotDestinationTracker,
+            DispatcherReadiness dispatcherReadiness,
+            PayloadTransformCache payloadTransformCache,
+            MeterRegistry meterRegistry,
+            @Value("${edp.retry.missing-event-delay-ms:500}") long missingEventDelayMs,
+            @Value("${edp.retry.missing-event-retries:5}") int missingEventRetries,
+            @Value("${edp.delivery.connect-timeout-ms:5000}") long connectTimeoutMs,
+            @Value("${edp.delivery.read-timeout-ms:30000}") long readTimeoutMs) {
         this.eventRepository = eventRepository;
         this.destinationRepository = destinationRepository;
         this.deliveryAttemptRepository = deliveryAttemptRepository;
         this.objectMapper = objectMapper;
         this.rateLimiterService = rateLimiterService;
-        this.restClient = RestClient.create();
+        this.requestTemplateCache = requestTemplateCache;
+        this.batchDispatcher = batchDispatcher;
+        this.laneGovernor = laneGovernor;
+        this.eventStatusCache = eventStatusCache;
+        this.deliveryStatsService = deliveryStatsService;
+        this.retryScheduler = retryScheduler;
+        this.kafkaProducerService = kafkaProducerService;
+        this.leaseReaper = leaseReaper;
+        this.regionRouter = regionRouter;
+        this.idempotencyService = idempotencyService;
+        this.hotDestinationTracker = hotDestinationTracker;
+        this.dispatcherReadiness = dispatcherReadiness;
+        this.payloadTransformCache = payloadTransformCache;
+        this.skippedCounter = meterRegistry.counter("edp.transform.skipped");
+        this.missingEventDelayMs = missingEventDelayMs;
+        this.missingEventRetries = missingEventRetries;
+        // Timeouts well inside the processing lease, or a hung receiver outlives it and
+        // the reaper sends the event again while this call is still waiting
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .build());
+        requestFactory.setReadTimeout(Duration.ofMillis(readTimeoutMs));
+        this.restClient = RestClient.builder().requestFactory(requestFactory).build();
+    }
+
+    @KafkaListener(id = LaneGovernor.HIGH_LISTENER_ID, topics = "#{@regionRouter.localTopic('" + KafkaProducerService.TOPIC_HIGH + "')}", groupId = "#{@regionRouter.consumerGroup()}", autoStartup = "#{!${edp.warmup.enabled:false}}", concurrency = "${edp.lanes.high.concurrency:3}")
+    public void consumeHighPriority(@Payload String messageJson, @Header(KafkaHeaders.RECEIVED_TOPIC) String topic) {
+        consume(messageJson, topic, EventPriority.HIGH);
     }
 
-    @RetryableTopic(attempts = "5", backoff = @Backoff(delay = 1000, multiplier = 2.0), dltStrategy = DltStrategy.FAIL_ON_ERROR, include = {
-            Exception.class })
-    @KafkaListener(topics = "events.primary", groupId = "dispatcher-group")
+    @KafkaListener(id = LaneGovernor.NORMAL_LISTENER_ID, topics = "#{@regionRouter.localTopic('" + KafkaProducerService.TOPIC_NORMAL + "')}", groupId = "#{@regionRouter.consumerGroup()}", autoStartup = "#{!${edp.warmup.enabled:false}}", concurrency = "${edp.lanes.normal.concurrency:2}")
     public void consumeEvent(@Payload String messageJson, @Header(KafkaHeaders.RECEIVED_TOPIC) String topic) {
+        consume(messageJson, topic, EventPriority.NORMAL);
+    }
+
+    // Bulk lane gets paused by LaneGovernor while the live lanes are saturated
+    @KafkaListener(id = LaneGovernor.BULK_LISTENER_ID, topics = "#{@regionRouter.localTopic('" + KafkaProducerService.TOPIC_LOW + "')}", groupId = "#{@regionRouter.consumerGroup()}", autoStartup = "#{!${edp.warmup.enabled:false}}", concurrency = "${edp.lanes.bulk.concurrency:1}")
+    public void consumeBulk(@Payload String messageJson, @Header(KafkaHeaders.RECEIVED_TOPIC) String topic) {
+        consume(messageJson, topic, EventPriority.LOW);
+    }
+
+    /**
+     * Opens a pooled connection to a receiver's host so the first delivery
+     * there doesn't pay for the TCP/TLS handshake. HEAD on the root, response
+     * ignored.
+     */
+    public void primeConnection(URI origin) {
+        restClient.head().uri(origin).exchange((request, response) -> null);
+    }
+
+    private void consume(String messageJson, String topic, EventPriority lane) {
         log.info("Consuming event from topic: {}", topic);
 
+        EventMessage eventMessage = parse(messageJson, topic);
+        if (eventMessage == null) {
+            return;
+        }
+
+        laneGovernor.started(lane);
+        try {
+            processEvent(eventMessage, false);
+        } finally {
+            laneGovernor.finished(lane);
+        }
+    }
+
+    /**
+     * Entry point for a hot destination's own listener (IsolatedDispatchPools).
+     * Not counted against any lane.
+     */
+    public void consumeIsolated(String messageJson, String topic) {
+        log.info("Consuming event from isolated topic: {}", topic);
+
+        EventMessage eventMessage = parse(messageJson, topic);
+        if (eventMessage != null) {
+            processEvent(eventMessage, true);
+        }
+    }
+
+    // Usually the message got here before the insert was visible (a lagging read, or a
+    // publish that raced the commit), so look again a few times before giving up on it
+    private void retryMissing(EventMessage message) {
+        int retries = message.getMissingRetries();
+        if (retries >= missingEventRetries) {
+            log.error("Event {} still missing after {} retries, moving to DLT", message.getEventId(), retries);
+            kafkaProducerService.sendToDeadLetter(message);
+            return;
+        }
+        long delayMs = missingEventDelayMs << Math.min(retries, 10);
+        message.setMissingRetries(retries + 1);
+        log.warn("Event {} not found, looking again in {}ms", message.getEventId(), delayMs);
+        retryScheduler.schedule(message, delayMs);
+    }
+
+    private EventMessage parse(String messageJson, String topic) {
         try {
-            EventMessage eventMessage = objectMapper.readValue(messageJson, EventMessage.class);
-            processEvent(eventMessage);
+            return objectMapper.readValue(messageJson, EventMessage.class);
         } catch (Exception e) {
-            log.error("Error processing event", e);
-            throw new RuntimeException("Validation or Processing failed", e);
+            // Will never parse, no point retrying
+            log.error("Unreadable message on {}, moving to DLT: {}", topic, messageJson, e);
+            kafkaProducerService.sendUnreadableToDeadLetter(messageJson);
+            return null;
         }
     }
 
-    private void processEvent(EventMessage message) {
-        Destination destination = destinationRepository.findById(message.getDestinationId())
-                .orElseThrow(() -> new RuntimeException("Destination not found"));
+    private void processEvent(EventMessage message, boolean isolated) {
+        Destination destination = destinationRepository.findById(message.getDestinationId()).orElse(null);
+        if (destination == null) {
+            log.error("Destination missing for event {}, moving to DLT", message.getEventId());
+            kafkaProducerService.sendToDeadLetter(message);
+            return;
+        }
+
+        // Not ours (home region set or changed since it was published) - hand it to the home region
+        String homeRegion = regionRouter.homeRegion(destination);
+        if (!regionRouter.isLocal(homeRegion)) {
+            log.info("Event {} belongs to region {}, forwarding", message.getEventId(), homeRegion);
+            message.setRegion(homeRegion);
+            kafkaProducerService.sendEvent(message);
+            return;
+        }
+
+        // Hot destinations are delivered from their own topic and pool, so what's
+        // already queued on the shared lanes is moved over instead of delivered here
+        if (!isolated && hotDestinationTracker.isHot(destination.getId())) {
+            kafkaProducerService.sendIsolated(message);
+            return;
+        }
+
+        // Take (or renew) the processing lease in one UPDATE instead of load + merge.
+        // Replayed and reaped events arrive already PROCESSING, redriven ones FAILED
+        if (eventRepository.claimForDelivery(message.getEventId(), leaseReaper.newLease()) == 0) {
+            if (eventRepository.existsById(message.getEventId())) {
+                log.info("Event {} already delivered, skipping duplicate", message.getEventId());
+            } else {
+                retryMissing(message);
+            }
+            return;
+        }
+        eventStatusCache.evict(message.getEventId());
+
+        // Ingest dedup is per region, so the same key can come in through two regions.
+        // Only the home region delivers, so claiming the key here catches it
+        if (!idempotencyService.claimDelivery(message.getIdempotencyKey(), destination.getId(),
+                message.getEventId())) {
+            log.info("Event {} duplicates an event already delivered for key {}", message.getEventId(),
+                    message.getIdempotencyKey());
+            eventRepository.updateStatus(List.of(message.getEventId()), EventStatus.DUPLICATE);
+            eventStatusCache.evict(message.getEventId());
+            return;
+        }
+
+        // Filter and reshape before any rate limit or HTTP cost. The message keeps the
+        // original payload, so retries and replays go through the rules again
+        String payload = message.getPayload();
+        PayloadTransform transform = payloadTransformCache.resolve(destination);
+        if (transform != null) {
+            payload = transform.apply(payload);
+            if (payload == null) {
+                log.debug("Event {} filtered out by destination {}", message.getEventId(), destination.getId());
+                eventRepository.updateStatus(List.of(message.getEventId()), EventStatus.SKIPPED);
+                eventStatusCache.evict(message.getEventId());
+                skippedCounter.increment();
+                return;
+            }
+        }
+
+        // Only needed as the attempts' FK - no SELECT
+        Event event = eventRepository.getReferenceById(message.getEventId());
 
-        Event event = eventRepository.findById(message.getEventId())
-                .orElseThrow(() -> new RuntimeException("Event not found"));
+        if (destination.isBatchEnabled()) {
+            // Delivered (and retried) by the batch dispatcher from here on
+            batchDispatcher.enqueue(destination, event, message, payload);
+            return;
+        }
 
-        if (event.getStatus() == EventStatus.RECEIVED || event.getStatus() == EventStatus.FAILED) {
-            event.setStatus(EventStatus.PROCESSING);
-            eventRepository.save(event);
+        // Out of tokens: park it until the bucket refills. Not a delivery
+        // attempt, so it doesn't count against maxAttempts
+        if (destination.getRateLimitRps() != null && destination.getRateLimitRps() > 0) {
+            io.github.bucket4j.Bucket bucket = rateLimiterService.resolveBucket(destination.getId(),
+                    destination.getRateLimitRps());
+            ConsumptionProbe probe = bucket.tryConsumeAndReturnRemaining(1);
+            if (!probe.isConsumed()) {
+                long waitMs = Math.max(1, TimeUnit.NANOSECONDS.toMillis(probe.getNanosToWaitForRefill()));
+                log.warn("Rate limit exceeded for destination {}. Re-queuing event {} in {}ms", destination.getId(),
+                        message.getEventId(), waitMs);
+                retryScheduler.schedule(message, waitMs);
+                return;
+            }
         }
 
         long startTime = System.currentTimeMillis();
         boolean success = false;
+        boolean retryable = false;
         int responseCode = 0;
-        String responseBody = "";
+        String responseBody = null;
+        Long retryAfterMs = null;
 
         try {
-            // Rate limiting check - don't want to block the whole consumer thread
-            // if we're out of tokens, so we'll throw and let retry handle it
-            if (destination.getRateLimitRps() != null && destination.getRateLimitRps() > 0) {
-                io.github.bucket4j.Bucket bucket = rateLimiterService.resolveBucket(destination.getId(),
-                        destination.getRateLimitRps());
-                if (!bucket.tryConsume(1)) {
-                    log.warn("Rate limit exceeded for destination {}. Re-queuing event {}", destination.getId(),
-                            message.getEventId());
-                    // Throwing here triggers retry with backoff
-                    // Could use a dedicated delay topic but RetryableTopic works fine
-                    throw new RuntimeException("Rate limit exceeded");
-                }
-            }
-
             // Sign the payload
-            String signature = SignatureUtil.calculateHmac(message.getPayload(), destination.getSigningSecret());
+            String signature = SignatureUtil.calculateHmac(payload, destination.getSigningSecret());
+
+            // URI, method and custom headers are parsed once per destination version
+            RequestTemplate template = requestTemplateCache.resolve(destination);
 
-            ResponseEntity<String> response = restClient.post()
-                    .uri(destination.getUrl())
+            // exchange() rather than retrieve(): the body is read only as far as the
+            // destination's capture settings ask, and 4xx/5xx don't throw
+            CapturedResponse response = restClient.method(template.method())
+                    .uri(template.uri())
+                    .headers(h -> h.addAll(template.headers()))
                     .header("Content-Type", "application/json")
                     .header("X-Edp-Signature", "sha256=" + signature)
-                    .body(message.getPayload())
-                    .retrieve()
-                    .toEntity(String.class);
+                    .body(payload)
+                    .exchange((request, clientResponse) -> CapturedResponse.read(clientResponse, destination),
+                            false);
 
-            responseCode = response.getStatusCode().value();
-            responseBody = response.getBody();
-            success = response.getStatusCode().is2xxSuccessful();
+            responseCode = response.statusCode();
+            responseBody = response.body();
+            success = response.isSuccessful();
+            if (!success) {
+                log.error("HTTP Delivery failed: {} from {}", responseCode, template.uri());
+                retryable = RetryPolicy.isRetryable(responseCode);
+                retryAfterMs = RetryPolicy.parseRetryAfter(response.retryAfter());
+            }
 
         } catch (Exception e) {
             log.error("HTTP Delivery failed: {}", e.getMessage());
             responseCode = 500;
             responseBody = e.getMessage();
-            success = false;
+            retryable = RetryPolicy.isRetryable(e);
         }
 
         long duration = System.currentTimeMillis() - startTime;
+        hotDestinationTracker.record(destination.getId(), duration);
 
         DeliveryAttempt attempt = new DeliveryAttempt();
         attempt.setEvent(event);
+        attempt.setDestinationId(destination.getId());
         attempt.setResponseCode(responseCode);
-        attempt.setResponseBody(
-                responseBody != null ? responseBody.substring(0, Math.min(responseBody.length(), 1000)) : "");
+        // Already capped for responses; exception messages still need it
+        attempt.setResponseBody(responseBody != null
+                ? responseBody.substring(0, Math.min(responseBody.length(), destination.getResponseCaptureBytes()))
+                : "");
         attempt.setSuccess(success);
         attempt.setDurationMs(duration);
 
         deliveryAttemptRepository.save(attempt);
+        deliveryStatsService.record(destination.getId(), success, duration);
 
         if (success) {
-            event.setStatus(EventStatus.DELIVERED);
-            eventRepository.save(event);
-            log.info("Event {} delivered successfully", event.getId());
-        } else {
-            event.setStatus(EventStatus.FAILED);
-            eventRepository.save(event);
-            log.warn("Event {} delivery failed, will retry if eligible", event.getId());
-            throw new RuntimeException("Delivery failed");
+            eventRepository.updateStatus(List.of(message.getEventId()), EventStatus.DELIVERED);
+            eventStatusCache.evict(message.getEventId());
+            dispatcherReadiness.delivered();
+            log.info("Event {} delivered successfully", message.getEventId());
+            return;
         }
-    }
 
-    @org.springframework.kafka.annotation.DltHandler
-    public void dltHandler(String messageJson, @Header(KafkaHeaders.RECEIVED_TOPIC) String topic) {
-        log.error("Event moved to DLQ: {}", messageJson);
-        try {
-            EventMessage eventMessage = objectMapper.readValue(messageJson, EventMessage.class);
+        int nextAttempt = message.getAttemptCount() + 1;
+        if (retryable && nextAttempt < destination.getMaxAttempts()) {
+            long delayMs = RetryPolicy.nextDelayMs(destination, message.getLastDelayMs(), retryAfterMs);
+            message.setAttemptCount(nextAttempt);
+            message.setLastDelayMs(delayMs);
+            retryScheduler.schedule(message, delayMs);
 
-            Event event = eventRepository.findById(eventMessage.getEventId()).orElse(null);
-            if (event != null) {
-                event.setStatus(EventStatus.PERMANENTLY_FAILED);
-                eventRepository.save(event);
-            }
-        } catch (Exception e) {
-            log.error("Failed to update status in DLQ handler", e);
+            // Only once the retry exists - until then the lease is what brings it back. The
+            // FAILED row keeps a lease past the due time in case the parked retry is lost.
+            // Conditional, as a re-published retry may already have been picked up again
+            eventRepository.markRetrying(List.of(message.getEventId()), leaseReaper.leaseAfter(delayMs));
+            eventStatusCache.evict(message.getEventId());
+            log.warn("Event {} delivery failed ({}), retrying in {}ms", message.getEventId(), responseCode, delayMs);
+        } else {
+            log.warn("Event {} delivery failed ({}), {} - moving to DLT", message.getEventId(), responseCode,
+                    retryable ? "out of attempts" : "not retryable");
+            kafkaProducerService.sendToDeadLetter(message);
         }
     }
 }
@@ -2,17 +2,34 @@ package com.eventdelivery.platform.service;
 
 import com.eventdelivery.platform.dto.EventMessage;
 import com.eventdelivery.platform.dto.EventRequest;
+import com.eventdelivery.platform.dto.EventStatusResponse;
+import com.eventdelivery.platform.dto.StreamAck;
+import com.eventdelivery.platform.dto.StreamedEvent;
 import com.eventdelivery.platform.model.Destination;
 import com.eventdelivery.platform.model.Event;
+import com.eventdelivery.platform.model.EventPriority;
 import com.eventdelivery.platform.model.EventStatus;
 import com.eventdelivery.platform.repository.DestinationRepository;
 import com.eventdelivery.platform.repository.EventRepository;
-import jakarta.transaction.Transactional;
+import com.eventdelivery.platform.repository.EventStatusView;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
@@ -24,13 +41,29 @@ public class EventService {
     private final DestinationRepository destinationRepository;
     private final KafkaProducerService kafkaProducerService;
     private final IdempotencyService idempotencyService;
+    private final AdmissionControlService admissionControlService;
+    private final EventStatusCache eventStatusCache;
+    private final LeaseReaper leaseReaper;
+    private final RegionRouter regionRouter;
+    private final ScheduledDeliveryService scheduledDeliveryService;
+    private final TransactionTemplate readOnlyTransaction;
 
     public EventService(EventRepository eventRepository, DestinationRepository destinationRepository,
-            KafkaProducerService kafkaProducerService, IdempotencyService idempotencyService) {
+            KafkaProducerService kafkaProducerService, IdempotencyService idempotencyService,
+            AdmissionControlService admissionControlService, EventStatusCache eventStatusCache,
+            LeaseReaper leaseReaper, RegionRouter regionRouter, ScheduledDeliveryService scheduledDeliveryService,
+            PlatformTransactionManager transactionManager) {
         this.eventRepository = eventRepository;
         this.destinationRepository = destinationRepository;
         this.kafkaProducerService = kafkaProducerService;
         this.idempotencyService = idempotencyService;
+        this.admissionControlService = admissionControlService;
+        this.eventStatusCache = eventStatusCache;
+        this.leaseReaper = leaseReaper;
+        this.regionRouter = regionRouter;
+        this.scheduledDeliveryService = scheduledDeliveryService;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
     }
 
     @Transactional
@@ -49,14 +82,22 @@ public class EventService {
             }
         }
 
+        LocalDateTime deliverAt = scheduledDeliveryService.resolveDeliverAt(request);
+
+        // Duplicates above don't count against the destination's ingest quota
+        admissionControlService.checkQuota(destination);
+
         Event event = new Event();
         event.setPayload(request.getPayload());
         event.setDestination(destination);
-        event.setStatus(EventStatus.RECEIVED);
+        event.setStatus(deliverAt != null ? EventStatus.SCHEDULED : EventStatus.RECEIVED);
+        event.setDeliverAt(deliverAt);
         event.setIdempotencyKey(idempotencyKey);
+        event.setPriority(request.getPriority() != null ? request.getPriority() : EventPriority.NORMAL);
 
-        // Save first so we get an ID
-        event = eventRepository.save(event);
+        // Save first so we get an ID. Scheduled events are flushed right away -
+        // the schedule row is written with plain JDBC and references this one
+        event = deliverAt != null ? eventRepository.saveAndFlush(event) : eventRepository.save(event);
 
         // Now try to claim this idempotency key in Redis
         // Doing this after DB save but if it fails, we'll rollback via exception
@@ -68,18 +109,172 @@ public class EventService {
             }
         }
 
+        if (deliverAt != null) {
+            // Published when it comes due
+            scheduledDeliveryService.schedule(event);
+            eventStatusCache.put(EventStatusResponse.from(event, null));
+            return event;
+        }
+
         EventMessage message = new EventMessage(
                 event.getId(),
                 destination.getId(),
                 event.getPayload(),
-                0);
+                0,
+                event.getPriority());
+        // Published to the home region's lane, which may not be this one
+        message.setRegion(regionRouter.homeRegion(destination));
+        message.setIdempotencyKey(idempotencyKey);
+
+        // Send it off to Kafka, once the row is committed and a dispatcher can see it
+        publishAfterCommit(List.of(message));
 
-        // Send it off to Kafka
-        kafkaProducerService.sendEvent(message);
+        eventStatusCache.put(EventStatusResponse.from(event, null));
 
         return event;
     }
 
+    /**
+     * Batch version of {@link #receiveEvent} for streamed ingest: one
+     * transaction, one destination lookup, and the inserts flushed together.
+     * A bad event is rejected on its own instead of failing the batch. Events
+     * are published once the batch commits. Returns one ack per request, in
+     * order (seq is left to the caller).
+     */
+    @Transactional
+    public List<StreamAck> receiveEvents(List<StreamedEvent> requests) {
+        Set<UUID> destinationIds = new LinkedHashSet<>();
+        for (StreamedEvent request : requests) {
+            destinationIds.add(request.getDestinationId());
+        }
+        Map<UUID, Destination> destinations = new HashMap<>();
+        for (Destination destination : destinationRepository.findAllById(destinationIds)) {
+            destinations.put(destination.getId(), destination);
+        }
+
+        List<StreamAck> acks = new ArrayList<>(requests.size());
+        List<Event> accepted = new ArrayList<>();
+        List<Event> claimed = new ArrayList<>();
+        for (StreamedEvent request : requests) {
+            Destination destination = destinations.get(request.getDestinationId());
+            if (destination == null) {
+                acks.add(StreamAck.rejected("Destination not found", null));
+                continue;
+            }
+            String idempotencyKey = request.getIdempotencyKey();
+            if (idempotencyKey != null) {
+                UUID existingEventId = idempotencyService.getExistingEventId(idempotencyKey, destination.getId());
+                if (existingEventId != null) {
+                    acks.add(StreamAck.accepted(existingEventId, "DUPLICATE"));
+                    continue;
+                }
+            }
+
+            LocalDateTime deliverAt;
+            try {
+                deliverAt = scheduledDeliveryService.resolveDeliverAt(request);
+                admissionControlService.checkQuota(destination);
+            } catch (OverloadedException e) {
+                acks.add(StreamAck.rejected(e.getMessage(), e.getRetryAfterSeconds()));
+                continue;
+            } catch (IllegalArgumentException e) {
+                acks.add(StreamAck.rejected(e.getMessage(), null));
+                continue;
+            }
+
+            Event event = new Event();
+            event.setPayload(request.getPayload());
+            event.setDestination(destination);
+            event.setStatus(deliverAt != null ? EventStatus.SCHEDULED : EventStatus.RECEIVED);
+            event.setDeliverAt(deliverAt);
+            event.setIdempotencyKey(idempotencyKey);
+            event.setPriority(request.getPriority() != null ? request.getPriority() : EventPriority.NORMAL);
+            // Persisting assigns the id, the insert waits for the flush
+            event = eventRepository.save(event);
+
+            if (idempotencyKey != null) {
+                if (!idempotencyService.process(idempotencyKey, destination.getId(), event.getId())) {
+                    // Lost the race, possibly to an earlier line of this batch
+                    eventRepository.delete(event);
+                    acks.add(StreamAck.accepted(
+                            idempotencyService.getExistingEventId(idempotencyKey, destination.getId()), "DUPLICATE"));
+                    continue;
+                }
+                claimed.add(event);
+            }
+            accepted.add(event);
+            acks.add(StreamAck.accepted(event.getId(), event.getStatus().name()));
+        }
+
+        releaseOnRollback(claimed);
+        // Schedule rows reference the events, so they have to be inserted first
+        eventRepository.flush();
+
+        List<EventMessage> messages = new ArrayList<>();
+        for (Event event : accepted) {
+            if (event.getStatus() == EventStatus.SCHEDULED) {
+                scheduledDeliveryService.schedule(event);
+            } else {
+                EventMessage message = new EventMessage(event.getId(), event.getDestination().getId(),
+                        event.getPayload(), 0, event.getPriority());
+                message.setRegion(regionRouter.homeRegion(event.getDestination()));
+                message.setIdempotencyKey(event.getIdempotencyKey());
+                messages.add(message);
+            }
+            eventStatusCache.put(EventStatusResponse.from(event, null));
+        }
+        // Nothing goes out for a batch that ends up rolled back
+        publishAfterCommit(messages);
+        return acks;
+    }
+
+    // Published before commit, a dispatcher can consume the message before the insert
+    // is visible (or after it rolled back)
+    private void publishAfterCommit(List<EventMessage> messages) {
+        if (messages.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            messages.forEach(kafkaProducerService::sendEvent);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                for (EventMessage message : messages) {
+                    try {
+                        kafkaProducerService.sendEvent(message);
+                    } catch (Exception e) {
+                        log.error("Failed to publish committed event {}", message.getEventId(), e);
+                    }
+                }
+            }
+        });
+    }
+
+    // The whole batch is acked REJECTED if it doesn't commit, so give its keys back
+    private void releaseOnRollback(List<Event> claimed) {
+        if (claimed.isEmpty() || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    return;
+                }
+                for (Event event : claimed) {
+                    try {
+                        idempotencyService.release(event.getIdempotencyKey(), event.getDestination().getId(),
+                                event.getId());
+                    } catch (Exception e) {
+                        log.warn("Failed to release idempotency key for uncommitted event {}", event.getId(), e);
+                    }
+                }
+            }
+        });
+    }
+
     public int replayEvents(com.eventdelivery.platform.dto.ReplayRequest request) {
         log.info("Starting replay for destination: {}", request.getDestinationId());
 
@@ -87,32 +282,99 @@ public class EventService {
         java.time.LocalDateTime startDate = request.getStartTime() != null ? request.getStartTime()
                 : java.time.LocalDateTime.now().minusHours(24);
 
-        List<Event> events = eventRepository.findReplayCandidates(request.getDestinationId(), request.getStatus(),
-                startDate);
+        // The scan is read-only, so it can run on a replica; the status writes below go to the primary
+        List<Event> events = readOnlyTransaction.execute(tx -> request.getStatus() != null
+                ? eventRepository.findReplayCandidatesByStatus(request.getDestinationId(), request.getStatus(),
+                        startDate)
+                : eventRepository.findReplayCandidates(request.getDestinationId(), startDate));
         log.info("Found {} events to replay", events.size());
 
+        // Every candidate belongs to the one destination
+        String region = destinationRepository.findById(request.getDestinationId())
+                .map(regionRouter::homeRegion)
+                .orElse(null);
+
+        // Replays are bulk traffic - keep them off the live lanes unless asked
+        EventPriority priority = request.getPriority() != null ? request.getPriority() : EventPriority.LOW;
+
         int count = 0;
         for (Event event : events) {
-            // Skip if it's already being processed
-            if (event.getStatus() != EventStatus.PROCESSING) {
+            // Skip if it's already being processed, unless that lease ran out.
+            // Scheduled events aren't due yet, so they're left alone too
+            if (event.getStatus() == EventStatus.SCHEDULED) {
+                continue;
+            }
+            if (event.getStatus() != EventStatus.PROCESSING || leaseExpired(event)) {
                 // Mark as processing again (TODO: maybe add a REPLAYING status?)
                 event.setStatus(EventStatus.PROCESSING);
+                event.setLeaseExpiresAt(leaseReaper.newLease());
+                event.setAttemptCount(0);
                 eventRepository.save(event);
 
                 EventMessage message = new EventMessage(
                         event.getId(),
                         event.getDestination().getId(),
                         event.getPayload(),
-                        0 // Start fresh with attempt count
-                );
+                        0, // Start fresh with attempt count
+                        priority);
+                message.setRegion(region);
+                message.setIdempotencyKey(event.getIdempotencyKey());
                 kafkaProducerService.sendEvent(message);
+                eventStatusCache.evict(event.getId());
                 count++;
             }
         }
         return count;
     }
 
+    private static boolean leaseExpired(Event event) {
+        return event.getLeaseExpiresAt() == null || event.getLeaseExpiresAt().isBefore(java.time.LocalDateTime.now());
+    }
+
+    @Transactional(readOnly = true)
     public Event getEvent(UUID id) {
         return eventRepository.findById(id).orElseThrow(() -> new RuntimeException("Event not found"));
     }
+
+    @Transactional(readOnly = true)
+    public EventStatusResponse getEventStatus(UUID id) {
+        List<EventStatusResponse> statuses = getEventStatuses(List.of(id));
+        if (statuses.isEmpty()) {
+            throw new RuntimeException("Event not found");
+        }
+        return statuses.get(0);
+    }
+
+    /**
+     * Status lookup for polling clients: cache first, then one projection query
+     * for the misses. Unknown ids are left out of the result.
+     */
+    @Transactional(readOnly = true)
+    public List<EventStatusResponse> getEventStatuses(Collection<UUID> ids) {
+        Set<UUID> unique = new LinkedHashSet<>(ids);
+        Map<UUID, EventStatusResponse> found = new LinkedHashMap<>(eventStatusCache.getAll(unique));
+
+        List<UUID> misses = unique.stream().filter(id -> !found.containsKey(id)).toList();
+        if (!misses.isEmpty()) {
+            List<EventStatusResponse> loaded = new ArrayList<>();
+            for (EventStatusView view : eventRepository.findStatusViews(misses)) {
+                // Two attempts with the same timestamp would give two rows, keep the first
+                if (!found.containsKey(view.getId())) {
+                    EventStatusResponse status = EventStatusResponse.from(view);
+                    found.put(view.getId(), status);
+                    loaded.add(status);
+                }
+            }
+            eventStatusCache.putRead(loaded);
+        }
+
+        List<EventStatusResponse> result = new ArrayList<>();
+        for (UUID id : unique) {
+            EventStatusResponse status = found.get(id);
+            if (status != null) {
+                result.add(status);
+            }
+        }
+        return result;
+    }
 }
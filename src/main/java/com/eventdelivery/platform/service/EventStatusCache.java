@@ -0,0 +1,106 @@
+package com.eventdelivery.platform.service;
+
+import com.eventdelivery.platform.dto.EventStatusResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Short-TTL Redis cache of event status projections, shared by all nodes so a
+ * status change on a dispatcher is visible to whichever node serves the poll.
+ *
+ * Ingest writes it; every other transition only evicts. Status reads fill it
+ * back in with a much shorter TTL, since they may come from a lagging replica
+ * and could otherwise put back a status the dispatcher just evicted.
+ */
+@Service
+public class EventStatusCache {
+
+    private static final Logger log = LoggerFactory.getLogger(EventStatusCache.class);
+    private static final String PREFIX = "evstatus:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Duration readTtl;
+
+    public EventStatusCache(StringRedisTemplate redisTemplate, ObjectMapper objectMapper,
+            @Value("${edp.status-cache.ttl-seconds:30}") long ttlSeconds,
+            @Value("${edp.status-cache.read-ttl-seconds:2}") long readTtlSeconds) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+        this.readTtl = Duration.ofSeconds(readTtlSeconds);
+    }
+
+    public Map<UUID, EventStatusResponse> getAll(Collection<UUID> ids) {
+        Map<UUID, EventStatusResponse> found = new HashMap<>();
+        if (ids.isEmpty()) {
+            return found;
+        }
+        List<UUID> ordered = new ArrayList<>(ids);
+        try {
+            List<String> keys = ordered.stream().map(id -> PREFIX + id).toList();
+            List<String> values = redisTemplate.opsForValue().multiGet(keys);
+            if (values == null) {
+                return found;
+            }
+            for (int i = 0; i < ordered.size(); i++) {
+                String json = values.get(i);
+                if (json != null) {
+                    found.put(ordered.get(i), objectMapper.readValue(json, EventStatusResponse.class));
+                }
+            }
+        } catch (Exception e) {
+            // Cache trouble just means we fall through to the DB
+            log.warn("Status cache read failed: {}", e.getMessage());
+        }
+        return found;
+    }
+
+    public void put(EventStatusResponse status) {
+        put(status, ttl);
+    }
+
+    // Statuses loaded by a read - possibly from a replica, so they only get the short TTL
+    public void putRead(Collection<EventStatusResponse> statuses) {
+        if (readTtl.isZero()) {
+            return;
+        }
+        statuses.forEach(status -> put(status, readTtl));
+    }
+
+    private void put(EventStatusResponse status, Duration ttl) {
+        try {
+            redisTemplate.opsForValue().set(PREFIX + status.getId(), objectMapper.writeValueAsString(status), ttl);
+        } catch (Exception e) {
+            log.warn("Status cache write failed for event {}: {}", status.getId(), e.getMessage());
+        }
+    }
+
+    public void evict(UUID id) {
+        evictAll(List.of(id));
+    }
+
+    public void evictAll(Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        try {
+            redisTemplate.delete(ids.stream().map(id -> PREFIX + id).toList());
+        } catch (Exception e) {
+            log.warn("Status cache evict failed: {}", e.getMessage());
+        }
+    }
+}
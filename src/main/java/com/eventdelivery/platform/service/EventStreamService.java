@@ -0,0 +1,316 @@
+package com.eventdelivery.platform.service;
+
+import com.eventdelivery.platform.dto.StreamAck;
+import com.eventdelivery.platform.dto.StreamedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Streamed ingest: NDJSON events in, NDJSON acks out, on one long-lived request.
+ *
+ * Lines are read into a batch until it's full or nothing more has arrived yet,
+ * so a busy producer gets big batches and a quiet one isn't kept waiting. Each
+ * batch is one transaction (see {@link EventService#receiveEvents}), and its
+ * acks are written and flushed as soon as it commits.
+ *
+ * Flow control is the connection itself: nothing more is read while a batch is
+ * being stored, or while admission control says we're overloaded (up to
+ * max-backpressure-ms, then the batch is rejected with retryAfter). A producer
+ * that sends faster than that blocks on its own socket.
+ *
+ * Each stream runs async on its own virtual thread, so reads and backpressure
+ * sleeps don't hold a Tomcat worker. At most max-concurrent streams are open
+ * per node; past that a new stream gets 429 before it starts.
+ */
+@Service
+public class EventStreamService {
+
+    private static final Logger log = LoggerFactory.getLogger(EventStreamService.class);
+
+    private final EventService eventService;
+    private final AdmissionControlService admissionControlService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final int batchSize;
+    private final long maxBackpressureMs;
+    private final int maxLineBytes;
+    private final DistributionSummary batchSizes;
+    private final Semaphore streamSlots;
+    private final ExecutorService streamExecutor =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("edp-stream-", 0).factory());
+
+    // Either a request to store or the ack it already got (bad JSON, failed validation)
+    private record Line(long seq, StreamedEvent request, StreamAck ack) {
+    }
+
+    public EventStreamService(EventService eventService, AdmissionControlService admissionControlService,
+            ObjectMapper objectMapper, Validator validator, MeterRegistry meterRegistry,
+            @Value("${edp.ingest.stream.batch-size:500}") int batchSize,
+            @Value("${edp.ingest.stream.max-backpressure-ms:30000}") long maxBackpressureMs,
+            @Value("${edp.ingest.stream.max-line-bytes:1048576}") int maxLineBytes,
+            @Value("${edp.ingest.stream.max-concurrent:200}") int maxConcurrent) {
+        this.eventService = eventService;
+        this.admissionControlService = admissionControlService;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.batchSize = batchSize;
+        this.maxBackpressureMs = maxBackpressureMs;
+        this.maxLineBytes = maxLineBytes;
+        this.batchSizes = meterRegistry.summary("edp.ingest.stream.batch.size");
+        this.streamSlots = new Semaphore(maxConcurrent);
+        meterRegistry.gauge("edp.ingest.stream.open", streamSlots, s -> maxConcurrent - s.availablePermits());
+    }
+
+    /**
+     * Takes the request async and runs {@link #ingest} on a virtual thread,
+     * completing the request when the stream ends. When this node already has
+     * max-concurrent streams, answers 429 with Retry-After instead.
+     */
+    public void ingestAsync(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType("application/x-ndjson");
+        if (!streamSlots.tryAcquire()) {
+            // Written here rather than via OverloadedException: the controller's JSON error
+            // body isn't acceptable to a client that only accepts NDJSON
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            OutputStream out = response.getOutputStream();
+            out.write(objectMapper.writeValueAsBytes(Map.of("message", "Too many open event streams")));
+            out.write('\n');
+            return;
+        }
+        try {
+            response.setStatus(HttpServletResponse.SC_OK);
+            AsyncContext async = request.startAsync();
+            // Streams are long-lived; an idle one is closed by the connector's read timeout
+            async.setTimeout(0);
+            InputStream in = request.getInputStream();
+            OutputStream out = response.getOutputStream();
+            streamExecutor.execute(() -> {
+                try {
+                    ingest(in, out);
+                } catch (IOException e) {
+                    log.debug("Event stream closed: {}", e.getMessage());
+                } finally {
+                    streamSlots.release();
+                    async.complete();
+                }
+            });
+        } catch (RuntimeException | IOException e) {
+            streamSlots.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Runs until the producer ends the request body. Blank lines are skipped, so
+     * they can be sent as keep-alives on an idle stream. A line over
+     * max-line-bytes is read past without being kept, and rejected on its own.
+     */
+    public void ingest(InputStream in, OutputStream out) throws IOException {
+        LineReader reader = new LineReader(in, maxLineBytes);
+        List<Line> batch = new ArrayList<>(batchSize);
+        long seq = 0;
+        long total = 0;
+        String text;
+        while ((text = reader.readLine()) != null) {
+            if (reader.overLength()) {
+                batch.add(new Line(seq++, null,
+                        StreamAck.rejected("Line longer than " + maxLineBytes + " bytes", null)));
+            } else if (!text.isBlank()) {
+                batch.add(parse(seq++, text));
+            }
+            if (!batch.isEmpty() && (batch.size() >= batchSize || !reader.ready())) {
+                total += store(batch, out);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            total += store(batch, out);
+        }
+        log.debug("Event stream ended: {} lines, {} events accepted", seq, total);
+    }
+
+    private Line parse(long seq, String text) {
+        StreamedEvent request;
+        try {
+            request = objectMapper.readValue(text, StreamedEvent.class);
+        } catch (JsonProcessingException e) {
+            return new Line(seq, null, StreamAck.rejected("Invalid JSON: " + e.getOriginalMessage(), null));
+        }
+        Set<ConstraintViolation<StreamedEvent>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return new Line(seq, null, StreamAck.rejected(violations.iterator().next().getMessage(), null));
+        }
+        return new Line(seq, request, null);
+    }
+
+    // Stores the batch and writes its acks. Returns how many events were accepted
+    private int store(List<Line> batch, OutputStream out) throws IOException {
+        List<StreamedEvent> requests = new ArrayList<>(batch.size());
+        for (Line line : batch) {
+            if (line.request() != null) {
+                requests.add(line.request());
+            }
+        }
+
+        List<StreamAck> stored = requests.isEmpty() ? List.of() : storeRequests(requests);
+        int accepted = 0;
+        int next = 0;
+        for (Line line : batch) {
+            StreamAck ack = line.ack() != null ? line.ack() : stored.get(next++);
+            ack.setSeq(line.seq());
+            if (!"REJECTED".equals(ack.getStatus())) {
+                accepted++;
+            }
+            out.write(objectMapper.writeValueAsBytes(ack));
+            out.write('\n');
+        }
+        out.flush();
+        batchSizes.record(requests.size());
+        return accepted;
+    }
+
+    private List<StreamAck> storeRequests(List<StreamedEvent> requests) {
+        OverloadedException overloaded = awaitCapacity();
+        if (overloaded != null) {
+            return rejectAll(requests.size(), overloaded.getMessage(), overloaded.getRetryAfterSeconds());
+        }
+        try {
+            return eventService.receiveEvents(requests);
+        } catch (RuntimeException e) {
+            // Nothing in the batch was committed
+            log.error("Failed to store a batch of {} streamed events", requests.size(), e);
+            return rejectAll(requests.size(), "Batch failed, retry", 1L);
+        }
+    }
+
+    // Waits out an overload instead of rejecting, so the producer slows down with us
+    private OverloadedException awaitCapacity() {
+        long deadline = System.currentTimeMillis() + maxBackpressureMs;
+        while (true) {
+            try {
+                admissionControlService.checkCapacity();
+                return null;
+            } catch (OverloadedException e) {
+                long waitMs = Math.min(e.getRetryAfterSeconds() * 1000, deadline - System.currentTimeMillis());
+                if (waitMs <= 0) {
+                    return e;
+                }
+                try {
+                    Thread.sleep(waitMs);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return e;
+                }
+            }
+        }
+    }
+
+    // readLine with a cap, so one endless line can't take the heap with it
+    private static final class LineReader {
+        private final InputStream in;
+        private final int maxBytes;
+        private final byte[] chunk = new byte[8192];
+        private int pos;
+        private int limit;
+        private byte[] line = new byte[8192];
+        private boolean overLength;
+
+        LineReader(InputStream in, int maxBytes) {
+            this.in = in;
+            this.maxBytes = maxBytes;
+        }
+
+        // The next line without its terminator, or null at the end. Over-length lines come back empty
+        String readLine() throws IOException {
+            int length = 0;
+            overLength = false;
+            boolean any = false;
+            while (true) {
+                if (pos == limit) {
+                    limit = in.read(chunk);
+                    pos = 0;
+                    if (limit <= 0) {
+                        limit = 0;
+                        return any ? finish(length) : null;
+                    }
+                }
+                any = true;
+                byte b = chunk[pos++];
+                if (b == '\n') {
+                    return finish(length);
+                }
+                if (overLength) {
+                    continue;
+                }
+                if (length == maxBytes) {
+                    overLength = true;
+                    continue;
+                }
+                if (length == line.length) {
+                    line = Arrays.copyOf(line, (int) Math.min((long) line.length * 2, maxBytes));
+                }
+                line[length++] = b;
+            }
+        }
+
+        boolean overLength() {
+            return overLength;
+        }
+
+        // Anything buffered or waiting on the socket, like BufferedReader.ready()
+        boolean ready() throws IOException {
+            return pos < limit || in.available() > 0;
+        }
+
+        private String finish(int length) {
+            if (overLength) {
+                return "";
+            }
+            if (length > 0 && line[length - 1] == '\r') {
+                length--;
+            }
+            return new String(line, 0, length, StandardCharsets.UTF_8);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        streamExecutor.shutdownNow();
+    }
+
+    private static List<StreamAck> rejectAll(int count, String error, Long retryAfter) {
+        List<StreamAck> acks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            acks.add(StreamAck.rejected(error, retryAfter));
+        }
+        return acks;
+    }
+}
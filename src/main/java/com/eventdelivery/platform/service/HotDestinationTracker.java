@@ -0,0 +1,156 @@
+package com.eventdelivery.platform.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Spots destinations that hog the shared dispatcher lanes.
+ *
+ * A destination's load is how many dispatcher threads it keeps busy on
+ * average: its delivery rate times its latency (total delivery time over the
+ * window). One that holds more than {@code enter-share} of this node's lane
+ * threads is marked hot and gets its own topic and listener (see
+ * {@link IsolatedDispatchPools}); it stays hot until it has used less than
+ * {@code exit-share} of that listener's threads for {@code cool-down-ms} and
+ * its isolated topic has been drained. That last part is the barrier on the
+ * way out: producers only go back to the lanes once what was queued on the
+ * isolated topic has been consumed, so older events aren't overtaken there.
+ * There's no such barrier on the way in - see the README on ordering.
+ *
+ * The hot set lives in Redis (scored by when a node last saw the destination
+ * hot), so producers and dispatchers on every node route the same way.
+ */
+@Service
+public class HotDestinationTracker {
+
+    private static final Logger log = LoggerFactory.getLogger(HotDestinationTracker.class);
+    private static final String KEY = "edp:hot-destinations";
+
+    private final StringRedisTemplate redisTemplate;
+    private final IsolatedBacklog isolatedBacklog;
+    private final double laneThreads;
+    private final double isolatedThreads;
+    private final double enterShare;
+    private final double exitShare;
+    private final double minRate;
+    private final long coolDownMs;
+    private final int maxHot;
+
+    private static class Window {
+        private final LongAdder deliveries = new LongAdder();
+        private final LongAdder busyMs = new LongAdder();
+    }
+
+    private volatile Map<UUID, Window> window = new ConcurrentHashMap<>();
+    private volatile long windowStart = System.currentTimeMillis();
+    private volatile Set<UUID> hot = Set.of();
+
+    public HotDestinationTracker(StringRedisTemplate redisTemplate, IsolatedBacklog isolatedBacklog,
+            MeterRegistry meterRegistry,
+            @Value("${edp.lanes.high.concurrency:3}") int highConcurrency,
+            @Value("${edp.lanes.normal.concurrency:2}") int normalConcurrency,
+            @Value("${edp.lanes.bulk.concurrency:1}") int bulkConcurrency,
+            @Value("${edp.hot.concurrency:2}") int isolatedConcurrency,
+            @Value("${edp.hot.enter-share:0.5}") double enterShare,
+            @Value("${edp.hot.exit-share:0.2}") double exitShare,
+            @Value("${edp.hot.min-rate:5}") double minRate,
+            @Value("${edp.hot.cool-down-ms:300000}") long coolDownMs,
+            @Value("${edp.hot.max-destinations:4}") int maxHot) {
+        this.redisTemplate = redisTemplate;
+        this.isolatedBacklog = isolatedBacklog;
+        this.laneThreads = highConcurrency + normalConcurrency + bulkConcurrency;
+        this.isolatedThreads = isolatedConcurrency;
+        this.enterShare = enterShare;
+        this.exitShare = exitShare;
+        this.minRate = minRate;
+        this.coolDownMs = coolDownMs;
+        this.maxHot = maxHot;
+        meterRegistry.gauge("edp.hot.destinations", this, t -> t.hot.size());
+    }
+
+    public void record(UUID destinationId, long durationMs) {
+        Window w = window.computeIfAbsent(destinationId, id -> new Window());
+        w.deliveries.increment();
+        w.busyMs.add(durationMs);
+    }
+
+    public boolean isHot(UUID destinationId) {
+        return hot.contains(destinationId);
+    }
+
+    public Set<UUID> hotDestinations() {
+        return hot;
+    }
+
+    @Scheduled(fixedDelayString = "${edp.hot.check-interval-ms:10000}")
+    public void evaluate() {
+        long now = System.currentTimeMillis();
+        Map<UUID, Window> closed = window;
+        window = new ConcurrentHashMap<>();
+        double elapsedMs = Math.max(1, now - windowStart);
+        windowStart = now;
+
+        try {
+            for (Map.Entry<UUID, Window> entry : closed.entrySet()) {
+                UUID destinationId = entry.getKey();
+                double rate = entry.getValue().deliveries.sum() * 1000.0 / elapsedMs;
+                // Average deliveries in flight, as a share of the threads it's running on:
+                // the shared lanes, or its own pool once isolated
+                boolean wasHot = hot.contains(destinationId);
+                double busy = entry.getValue().busyMs.sum() / elapsedMs;
+                double share = busy / (wasHot ? isolatedThreads : laneThreads);
+
+                if (wasHot ? share >= exitShare : share >= enterShare && rate >= minRate) {
+                    if (!wasHot && hot.size() >= maxHot) {
+                        log.warn("Destination {} is hot ({} of lane threads) but {} are isolated already",
+                                destinationId, String.format("%.0f%%", share * 100), maxHot);
+                        continue;
+                    }
+                    if (!wasHot) {
+                        log.warn("Destination {} is hot ({}/s, {} of lane threads) - isolating", destinationId,
+                                String.format("%.1f", rate), String.format("%.0f%%", share * 100));
+                    }
+                    redisTemplate.opsForZSet().add(KEY, destinationId.toString(), now);
+                }
+            }
+
+            // Cooled down, but held until its isolated topic is drained
+            Set<String> cooling = redisTemplate.opsForZSet().rangeByScore(KEY, 0, now - coolDownMs);
+            if (cooling != null) {
+                for (String member : cooling) {
+                    long lag = isolatedBacklog.lag(UUID.fromString(member));
+                    if (lag == 0) {
+                        redisTemplate.opsForZSet().remove(KEY, member);
+                    } else {
+                        log.debug("Destination {} has cooled down, waiting for {} isolated records first", member,
+                                lag);
+                    }
+                }
+            }
+            Set<String> members = redisTemplate.opsForZSet().range(KEY, 0, -1);
+            Set<UUID> current = members == null ? Set.of()
+                    : members.stream().map(UUID::fromString).collect(Collectors.toUnmodifiableSet());
+            for (UUID cooled : hot) {
+                if (!current.contains(cooled)) {
+                    log.info("Destination {} has cooled down, back on the shared lanes", cooled);
+                }
+            }
+            hot = current;
+        } catch (Exception e) {
+            // Keep the last known set rather than flapping everything back onto the lanes
+            log.warn("Failed to update hot destinations: {}", e.getMessage());
+        }
+    }
+}
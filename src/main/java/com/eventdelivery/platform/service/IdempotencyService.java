@@ -13,12 +13,14 @@ public class IdempotencyService {
 
     private static final Logger log = LoggerFactory.getLogger(IdempotencyService.class);
     private final StringRedisTemplate redisTemplate;
+    private final RegionRouter regionRouter;
 
     // Keep keys around for 24 hours
     private static final Duration KEY_TTL = Duration.ofHours(24);
 
-    public IdempotencyService(StringRedisTemplate redisTemplate) {
+    public IdempotencyService(StringRedisTemplate redisTemplate, RegionRouter regionRouter) {
         this.redisTemplate = redisTemplate;
+        this.regionRouter = regionRouter;
     }
 
     /**
@@ -31,7 +33,7 @@ public class IdempotencyService {
             return true; // No key? Just process it
         }
 
-        String redisKey = "idemp:" + destinationId + ":" + idempotencyKey;
+        String redisKey = ingestKey(idempotencyKey, destinationId);
 
         // setIfAbsent is atomic (Redis SETNX)
         Boolean success = redisTemplate.opsForValue().setIfAbsent(redisKey, eventId.toString(), KEY_TTL);
@@ -45,9 +47,49 @@ public class IdempotencyService {
         }
     }
 
+    /**
+     * Gives up a key taken by {@link #process} for an event that was never
+     * committed, so a retry isn't answered with an id that doesn't exist.
+     */
+    public void release(String idempotencyKey, UUID destinationId, UUID eventId) {
+        String redisKey = ingestKey(idempotencyKey, destinationId);
+        if (eventId.toString().equals(redisTemplate.opsForValue().get(redisKey))) {
+            redisTemplate.delete(redisKey);
+        }
+    }
+
     public UUID getExistingEventId(String idempotencyKey, UUID destinationId) {
-        String redisKey = "idemp:" + destinationId + ":" + idempotencyKey;
+        String redisKey = ingestKey(idempotencyKey, destinationId);
         String eventIdStr = redisTemplate.opsForValue().get(redisKey);
         return eventIdStr != null ? UUID.fromString(eventIdStr) : null;
     }
+
+    /**
+     * Dispatch-side dedup, checked in the destination's home region. Ingest keys
+     * are per region, so the same key accepted by two regions ends up as two
+     * events - only the first one to get here is delivered.
+     *
+     * @return true if this event may be delivered (it owns the key, or there is no key)
+     */
+    public boolean claimDelivery(String idempotencyKey, UUID destinationId, UUID eventId) {
+        if (idempotencyKey == null) {
+            return true;
+        }
+
+        String redisKey = "dedup:" + destinationId + ":" + idempotencyKey;
+        Boolean success = redisTemplate.opsForValue().setIfAbsent(redisKey, eventId.toString(), KEY_TTL);
+        if (Boolean.TRUE.equals(success)) {
+            return true;
+        }
+        // Retries and redrives of the same event come through here again
+        return eventId.toString().equals(redisTemplate.opsForValue().get(redisKey));
+    }
+
+    // Each region has its own ingest keys, the same as it would with its own Redis
+    private String ingestKey(String idempotencyKey, UUID destinationId) {
+        String region = regionRouter.localRegion();
+        return region == null
+                ? "idemp:" + destinationId + ":" + idempotencyKey
+                : "idemp:" + region + ":" + destinationId + ":" + idempotencyKey;
+    }
 }
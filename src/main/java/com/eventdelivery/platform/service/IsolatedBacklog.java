@@ -0,0 +1,154 @@
+package com.eventdelivery.platform.service;
+
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.ListOffsetsResult;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.UnknownTopicOrPartitionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * How far an isolated destination's consumer group is behind its topic in this
+ * region. Used as the drain barrier when a destination cools down (producers
+ * only go back to the lanes once this reaches 0) and to find isolated topics
+ * that got records after their pool stopped.
+ */
+@Component
+public class IsolatedBacklog {
+
+    private static final Logger log = LoggerFactory.getLogger(IsolatedBacklog.class);
+    private static final long TIMEOUT_SECONDS = 10;
+
+    private final KafkaAdmin kafkaAdmin;
+    private final RegionRouter regionRouter;
+    private volatile AdminClient adminClient;
+
+    public IsolatedBacklog(KafkaAdmin kafkaAdmin, RegionRouter regionRouter) {
+        this.kafkaAdmin = kafkaAdmin;
+        this.regionRouter = regionRouter;
+    }
+
+    /**
+     * Records on the destination's isolated topic its group hasn't committed,
+     * 0 if there's no topic. -1 if Kafka couldn't be asked - callers treat
+     * that as not drained.
+     */
+    public long lag(UUID destinationId) {
+        String topic = regionRouter.localTopic(KafkaProducerService.isolatedTopic(destinationId));
+        try {
+            AdminClient admin = admin();
+            TopicDescription description = admin.describeTopics(List.of(topic)).allTopicNames()
+                    .get(TIMEOUT_SECONDS, TimeUnit.SECONDS).get(topic);
+            List<TopicPartition> partitions = description.partitions().stream()
+                    .map(p -> new TopicPartition(topic, p.partition()))
+                    .toList();
+
+            Map<TopicPartition, OffsetAndMetadata> committed = admin
+                    .listConsumerGroupOffsets(regionRouter.isolatedConsumerGroup(destinationId))
+                    .partitionsToOffsetAndMetadata().get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            Map<TopicPartition, Long> earliest = offsets(admin, partitions, OffsetSpec.earliest());
+            Map<TopicPartition, Long> latest = offsets(admin, partitions, OffsetSpec.latest());
+
+            long lag = 0;
+            for (TopicPartition partition : partitions) {
+                // No commit yet means the group starts from the earliest record still kept
+                OffsetAndMetadata position = committed.get(partition);
+                long from = position != null ? position.offset() : earliest.get(partition);
+                lag += Math.max(0, latest.get(partition) - from);
+            }
+            return lag;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof UnknownTopicOrPartitionException) {
+                return 0;
+            }
+            log.warn("Couldn't read backlog of {}: {}", topic, e.getCause().getMessage());
+            return -1;
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            log.warn("Couldn't read backlog of {}: {}", topic, e.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * Destinations with an isolated topic in this region, hot or not.
+     */
+    public Set<UUID> isolatedDestinations() {
+        Set<UUID> destinations = new HashSet<>();
+        try {
+            for (String topic : admin().listTopics().names().get(TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                UUID destinationId = destinationOf(topic);
+                if (destinationId != null) {
+                    destinations.add(destinationId);
+                }
+            }
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            log.warn("Couldn't list isolated topics: {}", e.getMessage());
+        }
+        return destinations;
+    }
+
+    // events.isolated.<id>, plus this region's suffix - other regions' topics aren't ours to drain
+    private UUID destinationOf(String topic) {
+        String prefix = KafkaProducerService.TOPIC_ISOLATED_PREFIX;
+        if (!topic.startsWith(prefix) || topic.length() < prefix.length() + 36) {
+            return null;
+        }
+        try {
+            UUID destinationId = UUID.fromString(topic.substring(prefix.length(), prefix.length() + 36));
+            return regionRouter.localTopic(KafkaProducerService.isolatedTopic(destinationId)).equals(topic)
+                    ? destinationId : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static Map<TopicPartition, Long> offsets(AdminClient admin, List<TopicPartition> partitions,
+            OffsetSpec spec) throws Exception {
+        ListOffsetsResult result = admin.listOffsets(partitions.stream()
+                .collect(Collectors.toMap(Function.identity(), p -> spec)));
+        return result.all().get(TIMEOUT_SECONDS, TimeUnit.SECONDS).entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().offset()));
+    }
+
+    private AdminClient admin() {
+        AdminClient admin = adminClient;
+        if (admin == null) {
+            synchronized (this) {
+                if (adminClient == null) {
+                    adminClient = AdminClient.create(kafkaAdmin.getConfigurationProperties());
+                }
+                admin = adminClient;
+            }
+        }
+        return admin;
+    }
+
+    @PreDestroy
+    public void close() {
+        if (adminClient != null) {
+            adminClient.close();
+        }
+    }
+}
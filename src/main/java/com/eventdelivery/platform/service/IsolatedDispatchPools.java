@@ -0,0 +1,141 @@
+package com.eventdelivery.platform.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.MessageListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One listener container per hot destination, on that destination's own
+ * topic, with {@code edp.hot.concurrency} consumers - a slow or flooded
+ * receiver can tie up at most that many threads.
+ *
+ * Containers start as soon as a destination turns hot. It only cools down
+ * once its topic is drained (see {@link HotDestinationTracker}), and the
+ * container keeps consuming after that until the topic has been idle for
+ * {@code idle-stop-ms} and its group has no lag, as nodes that haven't
+ * noticed the cool-down yet may still send there. Records that arrive after
+ * a pool stopped anyway are found by {@link #restartBacklogged()}.
+ */
+@Component
+public class IsolatedDispatchPools {
+
+    private static final Logger log = LoggerFactory.getLogger(IsolatedDispatchPools.class);
+
+    private final ConcurrentKafkaListenerContainerFactory<Object, Object> containerFactory;
+    private final KafkaAdmin kafkaAdmin;
+    private final DispatcherWorker dispatcherWorker;
+    private final HotDestinationTracker hotDestinationTracker;
+    private final RegionRouter regionRouter;
+    private final DispatcherReadiness dispatcherReadiness;
+    private final IsolatedBacklog isolatedBacklog;
+    private final int concurrency;
+    private final long idleStopMs;
+
+    private record Pool(ConcurrentMessageListenerContainer<Object, Object> container, AtomicLong lastActive) {
+    }
+
+    private final Map<UUID, Pool> pools = new ConcurrentHashMap<>();
+
+    public IsolatedDispatchPools(ConcurrentKafkaListenerContainerFactory<Object, Object> containerFactory,
+            KafkaAdmin kafkaAdmin, DispatcherWorker dispatcherWorker, HotDestinationTracker hotDestinationTracker,
+            RegionRouter regionRouter, DispatcherReadiness dispatcherReadiness, IsolatedBacklog isolatedBacklog,
+            @Value("${edp.hot.concurrency:2}") int concurrency,
+            @Value("${edp.hot.idle-stop-ms:120000}") long idleStopMs) {
+        this.containerFactory = containerFactory;
+        this.kafkaAdmin = kafkaAdmin;
+        this.dispatcherWorker = dispatcherWorker;
+        this.hotDestinationTracker = hotDestinationTracker;
+        this.regionRouter = regionRouter;
+        this.dispatcherReadiness = dispatcherReadiness;
+        this.isolatedBacklog = isolatedBacklog;
+        this.concurrency = concurrency;
+        this.idleStopMs = idleStopMs;
+    }
+
+    @Scheduled(fixedDelayString = "${edp.hot.check-interval-ms:10000}")
+    public void reconcile() {
+        // Same as the lane listeners: don't consume before warm-up is done
+        if (!dispatcherReadiness.isWarmedUp()) {
+            return;
+        }
+        for (UUID destinationId : hotDestinationTracker.hotDestinations()) {
+            pools.computeIfAbsent(destinationId, this::start);
+        }
+
+        long now = System.currentTimeMillis();
+        pools.forEach((destinationId, pool) -> {
+            if (hotDestinationTracker.isHot(destinationId)) {
+                pool.lastActive().set(now);
+            } else if (now - pool.lastActive().get() >= idleStopMs && isolatedBacklog.lag(destinationId) == 0) {
+                log.info("Isolated pool for destination {} drained, stopping it", destinationId);
+                pool.container().stop();
+                pools.remove(destinationId);
+            }
+        });
+    }
+
+    /**
+     * Restarts the pool of any isolated topic in this region that has records
+     * its group hasn't consumed - sent by a node with a stale hot set after the
+     * pool stopped. It stops again once drained.
+     */
+    @Scheduled(fixedDelayString = "${edp.hot.straggler-check-ms:60000}")
+    public void restartBacklogged() {
+        if (!dispatcherReadiness.isWarmedUp()) {
+            return;
+        }
+        for (UUID destinationId : isolatedBacklog.isolatedDestinations()) {
+            if (!pools.containsKey(destinationId) && isolatedBacklog.lag(destinationId) > 0) {
+                log.warn("Isolated topic of destination {} has records but no pool, restarting it", destinationId);
+                pools.computeIfAbsent(destinationId, this::start);
+            }
+        }
+    }
+
+    private Pool start(UUID destinationId) {
+        String topic = regionRouter.localTopic(KafkaProducerService.isolatedTopic(destinationId));
+        AtomicLong lastActive = new AtomicLong(System.currentTimeMillis());
+
+        // One partition per consumer, or the extra consumers sit idle. Also widens a
+        // topic that the first produce auto-created with the broker default
+        try {
+            kafkaAdmin.createOrModifyTopics(TopicBuilder.name(topic).partitions(concurrency).build());
+        } catch (Exception e) {
+            log.warn("Couldn't create or widen {}: {}", topic, e.getMessage());
+        }
+
+        ConcurrentMessageListenerContainer<Object, Object> container = containerFactory.createContainer(topic);
+        // Offsets are kept, so a restarted pool resumes where it was
+        container.getContainerProperties().setGroupId(regionRouter.isolatedConsumerGroup(destinationId));
+        container.getContainerProperties().setMessageListener((MessageListener<Object, Object>) record -> {
+            lastActive.set(System.currentTimeMillis());
+            dispatcherWorker.consumeIsolated(String.valueOf(record.value()), record.topic());
+        });
+        container.setConcurrency(concurrency);
+        container.setBeanName("dispatcher-isolated-" + destinationId);
+        container.start();
+
+        log.info("Started isolated pool for destination {} on {} ({} consumers)", destinationId, topic,
+                concurrency);
+        return new Pool(container, lastActive);
+    }
+
+    @PreDestroy
+    public void stopAll() {
+        pools.values().forEach(pool -> pool.container().stop());
+        pools.clear();
+    }
+}
@@ -1,13 +1,32 @@
 package com.eventdelivery.platform.service;
 
 import com.eventdelivery.platform.dto.EventMessage;
+import com.eventdelivery.platform.model.EventPriority;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
 @Service
 public class KafkaProducerService {
 
@@ -15,28 +34,263 @@ public class KafkaProducerService {
 
     private final KafkaTemplate<String, String> kafkaTemplate;
     private final ObjectMapper objectMapper;
+    private final ProducerSpillStore spillStore;
+    private final RegionRouter regionRouter;
+    private final HotDestinationTracker hotDestinationTracker;
+
+    // Bounds how many sends can be waiting on the broker at once
+    private final Semaphore inFlightPermits;
+    private final int maxInFlight;
+    private final long acquireTimeoutMs;
+
+    // Failed acks are handled on the producer's I/O thread, which mustn't wait on an fsync.
+    // Records to spill are queued here and written (one fsync per batch) by spillWriter,
+    // which also replays the spill. Nothing else touches the disk
+    private final BlockingQueue<ProducerSpillStore.SpilledRecord> spillQueue;
+    private final long spillOfferTimeoutMs;
+    private final long spillDrainIntervalMs;
+    private final int spillDrainWindow;
+    private final ExecutorService spillWriter = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "producer-spill");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Counter sentCounter;
+    private final Counter failedCounter;
+    private final Counter spilledCounter;
+    private final Counter droppedCounter;
+    private final Counter replayedCounter;
+    private final Timer sendTimer;
 
-    public KafkaProducerService(KafkaTemplate<String, String> kafkaTemplate, ObjectMapper objectMapper) {
+    public KafkaProducerService(KafkaTemplate<String, String> kafkaTemplate, ObjectMapper objectMapper,
+            ProducerSpillStore spillStore, RegionRouter regionRouter, HotDestinationTracker hotDestinationTracker,
+            MeterRegistry meterRegistry,
+            @Value("${edp.producer.max-in-flight:10000}") int maxInFlight,
+            @Value("${edp.producer.acquire-timeout-ms:100}") long acquireTimeoutMs,
+            @Value("${edp.producer.spill-queue:10000}") int spillQueueSize,
+            @Value("${edp.producer.spill-offer-timeout-ms:1000}") long spillOfferTimeoutMs,
+            @Value("${edp.producer.spill-drain-interval-ms:5000}") long spillDrainIntervalMs,
+            @Value("${edp.producer.spill-drain-window:500}") int spillDrainWindow) {
         this.kafkaTemplate = kafkaTemplate;
         this.objectMapper = objectMapper;
+        this.spillStore = spillStore;
+        this.regionRouter = regionRouter;
+        this.hotDestinationTracker = hotDestinationTracker;
+        this.maxInFlight = maxInFlight;
+        this.inFlightPermits = new Semaphore(maxInFlight);
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        this.spillQueue = new ArrayBlockingQueue<>(spillQueueSize);
+        this.spillOfferTimeoutMs = spillOfferTimeoutMs;
+        this.spillDrainIntervalMs = spillDrainIntervalMs;
+        this.spillDrainWindow = spillDrainWindow;
+
+        this.sentCounter = meterRegistry.counter("edp.producer.sent");
+        this.failedCounter = meterRegistry.counter("edp.producer.failed");
+        this.spilledCounter = meterRegistry.counter("edp.producer.spilled");
+        this.droppedCounter = meterRegistry.counter("edp.producer.spill.dropped");
+        this.replayedCounter = meterRegistry.counter("edp.producer.spill.replayed");
+        this.sendTimer = meterRegistry.timer("edp.producer.send.latency");
+        meterRegistry.gauge("edp.producer.in_flight", this, KafkaProducerService::getInFlightSends);
+        meterRegistry.gauge("edp.producer.spill.segments", spillStore, ProducerSpillStore::pendingSegments);
+        meterRegistry.gauge("edp.producer.spill.queued", spillQueue, BlockingQueue::size);
+        spillWriter.execute(this::writeSpills);
     }
 
-    private static final String TOPIC = "events.primary";
+    // One topic per priority lane. NORMAL keeps the original topic name
+    public static final String TOPIC_HIGH = "events.high";
+    public static final String TOPIC_NORMAL = "events.primary";
+    public static final String TOPIC_LOW = "events.bulk";
+    public static final String TOPIC_DLT = "events.dlt";
+    // Plus the destination id - one topic per hot destination
+    public static final String TOPIC_ISOLATED_PREFIX = "events.isolated.";
+
+    public static String topicFor(EventPriority priority) {
+        if (priority == null) {
+            return TOPIC_NORMAL;
+        }
+        return switch (priority) {
+            case HIGH -> TOPIC_HIGH;
+            case NORMAL -> TOPIC_NORMAL;
+            case LOW -> TOPIC_LOW;
+        };
+    }
 
     public void sendEvent(EventMessage eventMessage) {
+        publish(eventTopic(eventMessage), eventMessage);
+    }
+
+    // Same routing as sendEvent, but no spill: the caller gets the broker's ack (or the
+    // failure) and keeps its own copy until then
+    public CompletableFuture<SendResult<String, String>> sendEventAcked(EventMessage eventMessage,
+            String message) {
+        return kafkaTemplate.send(eventTopic(eventMessage), eventMessage.getEventId().toString(), message);
+    }
+
+    private String eventTopic(EventMessage eventMessage) {
+        // Home region's lane topic - may be another region's dispatchers that pick it up.
+        // Hot destinations skip the lanes and go to their own topic
+        String baseTopic = hotDestinationTracker.isHot(eventMessage.getDestinationId())
+                ? isolatedTopic(eventMessage.getDestinationId())
+                : topicFor(eventMessage.getPriority());
+        return regionRouter.topic(baseTopic, eventMessage.getRegion());
+    }
+
+    // Moves a message queued on a lane over to its hot destination's topic
+    public void sendIsolated(EventMessage eventMessage) {
+        publish(regionRouter.topic(isolatedTopic(eventMessage.getDestinationId()), eventMessage.getRegion()),
+                eventMessage);
+    }
+
+    public static String isolatedTopic(UUID destinationId) {
+        return TOPIC_ISOLATED_PREFIX + destinationId;
+    }
+
+    private void publish(String topic, EventMessage eventMessage) {
+        String message;
+        try {
+            message = objectMapper.writeValueAsString(eventMessage);
+        } catch (JsonProcessingException e) {
+            log.error("Error serializing event message", e);
+            throw new RuntimeException("Error serializing event message", e);
+        }
+        send(topic, eventMessage.getEventId().toString(), message);
+    }
+
+    public void sendToDeadLetter(EventMessage eventMessage) {
+        try {
+            send(regionRouter.topic(TOPIC_DLT, eventMessage.getRegion()), eventMessage.getEventId().toString(),
+                    objectMapper.writeValueAsString(eventMessage));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Error serializing event message", e);
+        }
+    }
+
+    // Raw record we couldn't parse - no idea whose it is, so it stays in this region
+    public void sendUnreadableToDeadLetter(String message) {
+        send(regionRouter.localTopic(TOPIC_DLT), null, message);
+    }
+
+    /**
+     * Async send bounded by the in-flight limit. Anything Kafka doesn't take -
+     * no permit in time, a synchronous send error or a failed ack - goes to the
+     * local spill instead of being dropped.
+     */
+    public void send(String topic, String key, String message) {
+        boolean acquired;
+        try {
+            acquired = inFlightPermits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            log.warn("Too many in-flight sends, spilling record {} for topic {}", key, topic);
+            spill(topic, key, message, spillOfferTimeoutMs);
+            return;
+        }
+
+        long start = System.nanoTime();
         try {
-            String message = objectMapper.writeValueAsString(eventMessage);
-            kafkaTemplate.send(TOPIC, eventMessage.getEventId().toString(), message)
+            kafkaTemplate.send(topic, key, message)
                     .whenComplete((result, ex) -> {
+                        inFlightPermits.release();
+                        sendTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
                         if (ex == null) {
-                            log.debug("Sent event {} to topic {}", eventMessage.getEventId(), TOPIC);
+                            sentCounter.increment();
+                            log.debug("Sent record {} to topic {}", key, topic);
                         } else {
-                            log.error("Failed to send event {} to topic {}", eventMessage.getEventId(), TOPIC, ex);
+                            failedCounter.increment();
+                            log.error("Failed to send record {} to topic {}, spilling", key, topic, ex);
+                            // Producer I/O thread - can't wait for room
+                            spill(topic, key, message, 0);
                         }
                     });
-        } catch (JsonProcessingException e) {
-            log.error("Error serializing event message", e);
-            throw new RuntimeException("Error serializing event message", e);
+        } catch (RuntimeException e) {
+            inFlightPermits.release();
+            failedCounter.increment();
+            log.error("Failed to send record {} to topic {}, spilling", key, topic, e);
+            spill(topic, key, message, spillOfferTimeoutMs);
+        }
+    }
+
+    // Waits up to waitMs for room in the queue - slows the caller down rather than lose the
+    // record. Past that it's dropped and counted: the write itself is only ever done by
+    // spillWriter, never by whoever is calling here
+    private void spill(String topic, String key, String message, long waitMs) {
+        ProducerSpillStore.SpilledRecord record = new ProducerSpillStore.SpilledRecord(topic, key, message);
+        boolean queued;
+        try {
+            queued = spillQueue.offer(record, waitMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            queued = false;
+        }
+        if (!queued) {
+            droppedCounter.increment();
+            log.error("Spill queue full, dropping record {} for topic {}", key, topic);
         }
     }
+
+    // Polls rather than being interrupted: an interrupt mid-write would close the segment.
+    // Replays the spill from here too, between writes
+    private void writeSpills() {
+        List<ProducerSpillStore.SpilledRecord> batch = new ArrayList<>();
+        long nextDrain = System.currentTimeMillis() + spillDrainIntervalMs;
+        while (!spillWriter.isShutdown() || !spillQueue.isEmpty()) {
+            if (System.currentTimeMillis() >= nextDrain && !spillWriter.isShutdown()) {
+                drainSpill();
+                nextDrain = System.currentTimeMillis() + spillDrainIntervalMs;
+            }
+            try {
+                ProducerSpillStore.SpilledRecord first = spillQueue.poll(200, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            spillQueue.drainTo(batch, 999);
+            writeSpilled(batch);
+            batch.clear();
+        }
+    }
+
+    private void writeSpilled(List<ProducerSpillStore.SpilledRecord> records) {
+        try {
+            spillStore.appendAll(records);
+            spilledCounter.increment(records.size());
+        } catch (IOException e) {
+            // Nowhere left to put them
+            log.error("Failed to spill {} records - records lost", records.size(), e);
+        }
+    }
+
+    // Async sends, at most spill-drain-window waiting on an ack. Stops at the first failure and
+    // keeps the rest on disk
+    private void drainSpill() {
+        try {
+            int replayed = spillStore.drain(record -> kafkaTemplate.send(record.topic(), record.key(), record.value()),
+                    spillDrainWindow, 10_000);
+            if (replayed > 0) {
+                replayedCounter.increment(replayed);
+                log.info("Replayed {} spilled records to Kafka", replayed);
+            }
+        } catch (IOException e) {
+            log.error("Failed to drain producer spill", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        // Lets the writer finish what's queued
+        spillWriter.shutdown();
+        spillWriter.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    public int getInFlightSends() {
+        return maxInFlight - inFlightPermits.availablePermits();
+    }
 }
@@ -0,0 +1,102 @@
+package com.eventdelivery.platform.service;
+
+import com.eventdelivery.platform.model.EventPriority;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Weighted consumption across the priority lanes.
+ *
+ * Each lane has its own listener concurrency (the weight). On top of that the
+ * bulk lane is paused while the HIGH and NORMAL lanes are close to saturated,
+ * so bulk traffic only uses capacity the live lanes aren't using.
+ *
+ * All lanes are paused while {@link BatchDispatcher}'s buffer is backed up,
+ * as that's the only thing bounding it.
+ */
+@Component
+public class LaneGovernor {
+
+    private static final Logger log = LoggerFactory.getLogger(LaneGovernor.class);
+
+    public static final String HIGH_LISTENER_ID = "dispatcher-high";
+    public static final String NORMAL_LISTENER_ID = "dispatcher-normal";
+    public static final String BULK_LISTENER_ID = "dispatcher-bulk";
+
+    private final KafkaListenerEndpointRegistry registry;
+    private final BatchDispatcher batchDispatcher;
+    private final Map<EventPriority, AtomicInteger> inFlight = new EnumMap<>(EventPriority.class);
+    private final int liveConcurrency;
+    private final double pauseThreshold;
+    private boolean liveLanesHeld;
+
+    public LaneGovernor(KafkaListenerEndpointRegistry registry, BatchDispatcher batchDispatcher,
+            @Value("${edp.lanes.high.concurrency:3}") int highConcurrency,
+            @Value("${edp.lanes.normal.concurrency:2}") int normalConcurrency,
+            @Value("${edp.lanes.bulk.pause-threshold:0.75}") double pauseThreshold) {
+        this.registry = registry;
+        this.batchDispatcher = batchDispatcher;
+        this.liveConcurrency = highConcurrency + normalConcurrency;
+        this.pauseThreshold = pauseThreshold;
+        for (EventPriority priority : EventPriority.values()) {
+            inFlight.put(priority, new AtomicInteger());
+        }
+    }
+
+    public void started(EventPriority lane) {
+        inFlight.get(lane).incrementAndGet();
+    }
+
+    public void finished(EventPriority lane) {
+        inFlight.get(lane).decrementAndGet();
+    }
+
+    public int inFlight(EventPriority lane) {
+        return inFlight.get(lane).get();
+    }
+
+    @Scheduled(fixedDelayString = "${edp.lanes.check-interval-ms:250}")
+    public void rebalance() {
+        MessageListenerContainer bulk = registry.getListenerContainer(BULK_LISTENER_ID);
+        if (bulk == null || !bulk.isRunning()) {
+            return;
+        }
+
+        boolean batchesBackedUp = batchDispatcher.isBackedUp();
+        if (batchesBackedUp != liveLanesHeld) {
+            log.warn(batchesBackedUp ? "Batch buffer full, pausing all lanes" : "Batch buffer drained, resuming lanes");
+            for (String id : new String[] {HIGH_LISTENER_ID, NORMAL_LISTENER_ID}) {
+                MessageListenerContainer lane = registry.getListenerContainer(id);
+                if (lane != null) {
+                    if (batchesBackedUp) {
+                        lane.pause();
+                    } else {
+                        lane.resume();
+                    }
+                }
+            }
+            liveLanesHeld = batchesBackedUp;
+        }
+
+        int live = inFlight(EventPriority.HIGH) + inFlight(EventPriority.NORMAL);
+        boolean saturated = live >= Math.max(1, liveConcurrency * pauseThreshold);
+        boolean pauseBulk = saturated || batchesBackedUp;
+
+        if (pauseBulk && !bulk.isPauseRequested()) {
+            log.debug("Live lanes busy ({} in flight) or batches backed up, pausing bulk lane", live);
+            bulk.pause();
+        } else if (!pauseBulk && bulk.isPauseRequested()) {
+            log.debug("Live lanes have spare capacity, resuming bulk lane");
+            bulk.resume();
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.eventdelivery.platform.service;
+
+import com.eventdelivery.platform.dto.EventMessage;
+import com.eventdelivery.platform.model.EventPriority;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * PROCESSING is a lease. Whoever sets it (dispatcher pickup, replay) also sets
+ * lease_expires_at; if the node dies or the Kafka send is lost, nobody clears
+ * it and the reaper puts the event back on its lane once the lease runs out.
+ *
+ * FAILED events waiting on a retry hold one too, running past the retry's due
+ * time, so a retry lost from Redis is recovered the same way.
+ *
+ * The attempt count survives a reap. An expired PROCESSING lease counts as a
+ * failed attempt, so an event that keeps killing (or outlasting) its
+ * dispatcher ends up in the DLT like any other that keeps failing.
+ */
+@Service
+public class LeaseReaper {
+
+    private static final Logger log = LoggerFactory.getLogger(LeaseReaper.class);
+
+    // Claims a batch of expired leases by pushing them forward. SKIP LOCKED so
+    // reapers on several nodes split the work instead of queueing on row locks.
+    // Only touches rows in idx_events_lease
+    private static final String CLAIM_EXPIRED = """
+            UPDATE events e SET lease_expires_at = ?, updated_at = ?,
+                attempt_count = e.attempt_count + CASE WHEN e.status = 'PROCESSING' THEN 1 ELSE 0 END
+            FROM destinations d
+            WHERE d.id = e.destination_id AND e.id IN (
+                SELECT id FROM events
+                WHERE status IN ('PROCESSING', 'FAILED') AND lease_expires_at < ?
+                ORDER BY lease_expires_at
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED)
+            RETURNING e.id, e.destination_id, e.payload, e.priority, e.idempotency_key, e.attempt_count,
+                d.home_region, d.max_attempts
+            """;
+
+    // Fresh message from an events row joined to its destination (RETURNING id,
+    // destination_id, payload, priority, idempotency_key, attempt_count, home_region)
+    static final RowMapper<EventMessage> EVENT_MESSAGE = (rs, rowNum) -> {
+        EventMessage message = new EventMessage(
+                rs.getObject("id", UUID.class),
+                rs.getObject("destination_id", UUID.class),
+                rs.getString("payload"),
+                rs.getInt("attempt_count"),
+                EventPriority.valueOf(rs.getString("priority")));
+        message.setIdempotencyKey(rs.getString("idempotency_key"));
+        message.setRegion(rs.getString("home_region"));
+        return message;
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final KafkaProducerService kafkaProducerService;
+    private final EventStatusCache eventStatusCache;
+    private final long leaseMs;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final Counter recoveredCounter;
+
+    public LeaseReaper(JdbcTemplate jdbcTemplate, KafkaProducerService kafkaProducerService,
+            EventStatusCache eventStatusCache, MeterRegistry meterRegistry,
+            @Value("${edp.lease.duration-ms:300000}") long leaseMs,
+            @Value("${edp.lease.reaper-batch-size:1000}") int batchSize,
+            @Value("${edp.lease.reaper-max-batches:10}") int maxBatchesPerRun) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.kafkaProducerService = kafkaProducerService;
+        this.eventStatusCache = eventStatusCache;
+        this.leaseMs = leaseMs;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.recoveredCounter = meterRegistry.counter("edp.reaper.recovered");
+    }
+
+    /**
+     * Expiry for a lease taken now.
+     */
+    public LocalDateTime newLease() {
+        return leaseAfter(0);
+    }
+
+    /**
+     * Expiry for a lease that has to outlast a wait of delayMs first (a parked retry).
+     */
+    public LocalDateTime leaseAfter(long delayMs) {
+        return LocalDateTime.now().plusNanos((delayMs + leaseMs) * 1_000_000);
+    }
+
+    @Scheduled(fixedDelayString = "${edp.lease.reaper-interval-ms:30000}")
+    public void reap() {
+        int total = 0;
+        try {
+            for (int i = 0; i < maxBatchesPerRun; i++) {
+                int claimed = reapBatch();
+                total += claimed;
+                if (claimed < batchSize) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            log.error("Lease reaper failed after recovering {} events", total, e);
+            return;
+        }
+        if (total > 0) {
+            log.warn("Recovered {} events with expired leases", total);
+        }
+    }
+
+    private int reapBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        // Single statement, so claiming is atomic without a surrounding transaction
+        List<Reaped> reaped = jdbcTemplate.query(CLAIM_EXPIRED,
+                (rs, rowNum) -> new Reaped(EVENT_MESSAGE.mapRow(rs, rowNum), rs.getInt("max_attempts")),
+                Timestamp.valueOf(newLease()), Timestamp.valueOf(now), Timestamp.valueOf(now), batchSize);
+
+        List<EventMessage> expired = new ArrayList<>(reaped.size());
+        for (Reaped r : reaped) {
+            // Out of attempts: the DLT listener marks it PERMANENTLY_FAILED
+            if (r.message().getAttemptCount() >= r.maxAttempts()) {
+                log.warn("Event {} used up its {} attempts, moving to DLT", r.message().getEventId(), r.maxAttempts());
+                kafkaProducerService.sendToDeadLetter(r.message());
+            } else {
+                kafkaProducerService.sendEvent(r.message());
+            }
+            expired.add(r.message());
+        }
+        if (!expired.isEmpty()) {
+            eventStatusCache.evictAll(expired.stream().map(EventMessage::getEventId).toList());
+            recoveredCounter.increment(expired.size());
+        }
+        return expired.size();
+    }
+
+    private record Reaped(EventMessage message, int maxAttempts) {
+    }
+}
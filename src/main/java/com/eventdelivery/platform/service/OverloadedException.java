@@ -0,0 +1,18 @@
+package com.eventdelivery.platform.service;
+
+/**
+ * Thrown when ingest sheds a request. Mapped to 429 with a Retry-After header.
+ */
+public class OverloadedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public OverloadedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,364 @@
+package com.eventdelivery.platform.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.BooleanNode;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A destination's filter and projection rules, compiled. Spec (destination
+ * {@code transform}, JSON):
+ *
+ * <pre>
+ * {
+ *   "filter": [{"path": "type", "op": "in", "value": ["order.created", "order.paid"]},
+ *              {"path": "order.total", "op": "gte", "value": 100}],
+ *   "fields": {"order.id": "orderId", "type": "type"}
+ * }
+ * </pre>
+ *
+ * Every filter must match (ops: eq, ne, in, exists, gt, gte, lt, lte; the
+ * comparisons work on numbers and strings). {@code fields} maps a source path
+ * to the name it gets in the delivered object; without it the payload is sent
+ * as is. Paths are dotted object keys, arrays can't be indexed into.
+ *
+ * Payloads are read with the streaming parser, in one pass: subtrees no rule
+ * looks at are skipped, a failed filter stops the read right there, and so
+ * does having seen every path a rule needs. Payloads that aren't a JSON
+ * object have none of the paths; if they pass the filters they go out as is.
+ */
+public class PayloadTransform {
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private enum Op {
+        EQ, NE, IN, EXISTS, GT, GTE, LT, LTE
+    }
+
+    private record Condition(int id, Op op, JsonNode value) {
+
+        boolean matches(JsonToken token, JsonParser parser) throws IOException {
+            return switch (op) {
+                case EQ -> equalTo(value, token, parser);
+                case NE -> !equalTo(value, token, parser);
+                case IN -> {
+                    for (JsonNode candidate : value) {
+                        if (equalTo(candidate, token, parser)) {
+                            yield true;
+                        }
+                    }
+                    yield false;
+                }
+                case EXISTS -> value.booleanValue();
+                case GT, GTE, LT, LTE -> {
+                    Integer order = compare(token, parser);
+                    yield order != null && switch (op) {
+                        case GT -> order > 0;
+                        case GTE -> order >= 0;
+                        case LT -> order < 0;
+                        default -> order <= 0;
+                    };
+                }
+            };
+        }
+
+        boolean matchesMissing() {
+            return op == Op.NE || (op == Op.EXISTS && !value.booleanValue());
+        }
+
+        // Payload value against the condition's, or null if they can't be compared
+        private Integer compare(JsonToken token, JsonParser parser) throws IOException {
+            if (token.isNumeric() && value.isNumber()) {
+                return parser.getDecimalValue().compareTo(value.decimalValue());
+            }
+            if (token == JsonToken.VALUE_STRING && value.isTextual()) {
+                return parser.getText().compareTo(value.textValue());
+            }
+            return null;
+        }
+
+        private static boolean equalTo(JsonNode expected, JsonToken token, JsonParser parser) throws IOException {
+            return switch (token) {
+                case VALUE_STRING -> expected.isTextual() && expected.textValue().equals(parser.getText());
+                case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> expected.isNumber()
+                        && expected.decimalValue().compareTo(parser.getDecimalValue()) == 0;
+                case VALUE_TRUE, VALUE_FALSE -> expected.isBoolean()
+                        && expected.booleanValue() == (token == JsonToken.VALUE_TRUE);
+                case VALUE_NULL -> expected.isNull();
+                default -> false; // objects and arrays never equal a filter value
+            };
+        }
+    }
+
+    // One per path segment. A node is "needed" when a rule reads its value
+    private static class PathNode {
+        private final Map<String, PathNode> children = new HashMap<>();
+        private final List<Condition> conditions = new ArrayList<>();
+        private String target;
+        private int id = -1;
+
+        boolean needed() {
+            return target != null || !conditions.isEmpty();
+        }
+    }
+
+    private final PathNode root = new PathNode();
+    private final List<Condition> conditions = new ArrayList<>();
+    private final boolean project;
+    private int neededPaths;
+
+    private PayloadTransform(boolean project) {
+        this.project = project;
+    }
+
+    /**
+     * Compiles a spec, or returns null for a blank spec. Throws
+     * IllegalArgumentException describing the first problem found.
+     */
+    public static PayloadTransform compile(String spec, ObjectMapper objectMapper) {
+        if (spec == null || spec.isBlank()) {
+            return null;
+        }
+        JsonNode tree;
+        try {
+            tree = objectMapper.readTree(spec);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Transform must be valid JSON", e);
+        }
+        if (!tree.isObject()) {
+            throw new IllegalArgumentException("Transform must be a JSON object");
+        }
+        Iterator<String> keys = tree.fieldNames();
+        while (keys.hasNext()) {
+            String key = keys.next();
+            if (!key.equals("filter") && !key.equals("fields")) {
+                throw new IllegalArgumentException("Unknown transform key: " + key);
+            }
+        }
+
+        JsonNode fields = tree.path("fields");
+        if (!fields.isMissingNode() && !fields.isObject()) {
+            throw new IllegalArgumentException("Transform fields must be an object of source path to name");
+        }
+        PayloadTransform transform = new PayloadTransform(fields.isObject() && !fields.isEmpty());
+
+        JsonNode filter = tree.path("filter");
+        if (!filter.isMissingNode() && !filter.isArray()) {
+            throw new IllegalArgumentException("Transform filter must be an array");
+        }
+        for (JsonNode rule : filter) {
+            transform.addCondition(rule);
+        }
+
+        Set<String> targets = new HashSet<>();
+        Iterator<Map.Entry<String, JsonNode>> entries = fields.fields();
+        while (entries.hasNext()) {
+            Map.Entry<String, JsonNode> entry = entries.next();
+            String target = entry.getValue().asText("");
+            if (!entry.getValue().isTextual() || target.isBlank()) {
+                throw new IllegalArgumentException("Field " + entry.getKey() + " must map to a name");
+            }
+            if (!targets.add(target)) {
+                throw new IllegalArgumentException("Two fields map to " + target);
+            }
+            transform.node(entry.getKey()).target = target;
+        }
+
+        transform.neededPaths = transform.number(transform.root, 0);
+        return transform.conditions.isEmpty() && !transform.project ? null : transform;
+    }
+
+    private void addCondition(JsonNode rule) {
+        String path = rule.path("path").asText("");
+        Op op;
+        try {
+            op = Op.valueOf(rule.path("op").asText("").toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown filter op: " + rule.path("op").asText(""));
+        }
+        JsonNode value = rule.get("value");
+        if (value == null && op != Op.EXISTS) {
+            throw new IllegalArgumentException("Filter on " + path + " needs a value");
+        }
+        if (op == Op.EXISTS && value != null && !value.isBoolean()) {
+            throw new IllegalArgumentException("Filter on " + path + ": exists takes true or false");
+        }
+        if (op == Op.IN && !value.isArray()) {
+            throw new IllegalArgumentException("Filter on " + path + ": in needs an array");
+        }
+        if ((op == Op.GT || op == Op.GTE || op == Op.LT || op == Op.LTE) && !value.isNumber()
+                && !value.isTextual()) {
+            throw new IllegalArgumentException("Filter on " + path + ": " + op.name().toLowerCase()
+                    + " needs a number or string");
+        }
+        Condition condition = new Condition(conditions.size(), op, value != null ? value : BooleanNode.TRUE);
+        conditions.add(condition);
+        node(path).conditions.add(condition);
+    }
+
+    private PathNode node(String path) {
+        if (path.isBlank() || path.startsWith(".") || path.endsWith(".") || path.contains("..")) {
+            throw new IllegalArgumentException("Invalid path: " + path);
+        }
+        PathNode node = root;
+        for (String segment : path.split("\\.")) {
+            node = node.children.computeIfAbsent(segment, s -> new PathNode());
+        }
+        return node;
+    }
+
+    // Gives each needed node an id; returns the next free one
+    private int number(PathNode node, int next) {
+        if (node.needed()) {
+            node.id = next++;
+        }
+        for (PathNode child : node.children.values()) {
+            next = number(child, next);
+        }
+        return next;
+    }
+
+    /**
+     * The body to deliver for this payload, or null if the filters reject it.
+     */
+    public String apply(String payload) {
+        Evaluation evaluation = new Evaluation();
+        boolean object = false;
+        try (JsonParser parser = JSON.createParser(payload)) {
+            object = parser.nextToken() == JsonToken.START_OBJECT;
+            if (object && !walkObject(parser, root, evaluation)) {
+                return null;
+            }
+        } catch (IOException e) {
+            // Not JSON, or broken part way: whatever wasn't reached counts as missing,
+            // and there's nothing sound to project from
+            object = false;
+        }
+        for (Condition condition : conditions) {
+            if (!evaluation.seenConditions[condition.id()] && !condition.matchesMissing()) {
+                return null;
+            }
+        }
+        return project && object ? evaluation.output() : payload;
+    }
+
+    // Parser is on START_OBJECT. False as soon as a filter fails
+    private boolean walkObject(JsonParser parser, PathNode node, Evaluation evaluation) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            PathNode child = node.children.get(parser.currentName());
+            JsonToken token = parser.nextToken();
+            if (child == null) {
+                parser.skipChildren();
+                continue;
+            }
+            if (!visit(parser, token, child, evaluation)) {
+                return false;
+            }
+            if (evaluation.seenPaths == neededPaths) {
+                // Nothing left for any rule to look at
+                return true;
+            }
+        }
+        return true;
+    }
+
+    private boolean visit(JsonParser parser, JsonToken token, PathNode node, Evaluation evaluation)
+            throws IOException {
+        boolean descend = token == JsonToken.START_OBJECT && !node.children.isEmpty();
+        if (descend && node.needed()) {
+            // Rules on this object and on paths inside it - buffer it so it can be read twice
+            TokenBuffer buffer = new TokenBuffer(parser);
+            buffer.copyCurrentStructure(parser);
+            JsonParser copy = buffer.asParser();
+            if (!readValue(copy, copy.nextToken(), node, evaluation)) {
+                return false;
+            }
+            copy = buffer.asParser();
+            copy.nextToken();
+            return walkObject(copy, node, evaluation);
+        }
+        if (descend) {
+            return walkObject(parser, node, evaluation);
+        }
+        if (!node.needed()) {
+            parser.skipChildren();
+            return true;
+        }
+        return readValue(parser, token, node, evaluation);
+    }
+
+    // Checks the node's filters and copies it out if projected. Consumes the value
+    private boolean readValue(JsonParser parser, JsonToken token, PathNode node, Evaluation evaluation)
+            throws IOException {
+        if (!evaluation.seen(node)) {
+            parser.skipChildren(); // duplicate key, the first one counts
+            return true;
+        }
+        for (Condition condition : node.conditions) {
+            evaluation.seenConditions[condition.id()] = true;
+            if (!condition.matches(token, parser)) {
+                return false;
+            }
+        }
+        if (node.target != null && project) {
+            evaluation.generator().writeFieldName(node.target);
+            evaluation.generator().copyCurrentStructure(parser);
+        } else {
+            parser.skipChildren();
+        }
+        return true;
+    }
+
+    private class Evaluation {
+        private final boolean[] seenConditions = new boolean[conditions.size()];
+        private final boolean[] seenNodes = new boolean[neededPaths];
+        private int seenPaths;
+        private StringWriter writer;
+        private JsonGenerator generator;
+
+        boolean seen(PathNode node) {
+            if (seenNodes[node.id]) {
+                return false;
+            }
+            seenNodes[node.id] = true;
+            seenPaths++;
+            return true;
+        }
+
+        JsonGenerator generator() throws IOException {
+            if (generator == null) {
+                writer = new StringWriter();
+                generator = JSON.createGenerator(writer);
+                generator.writeStartObject();
+            }
+            return generator;
+        }
+
+        // None of the fields present still gives an (empty) object, never the full payload
+        String output() {
+            try {
+                generator().writeEndObject();
+                generator.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return writer.toString();
+        }
+    }
+}
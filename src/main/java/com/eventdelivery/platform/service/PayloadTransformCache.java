@@ -0,0 +1,62 @@
+package com.eventdelivery.platform.service;
+
+import com.eventdelivery.platform.model.Destination;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compiled {@link PayloadTransform} per destination, rebuilt only when the
+ * destination's updatedAt moves (same as {@link RequestTemplateCache}).
+ */
+@Component
+public class PayloadTransformCache {
+
+    private static final Logger log = LoggerFactory.getLogger(PayloadTransformCache.class);
+
+    // transform is null for destinations without rules
+    private record Compiled(PayloadTransform transform, LocalDateTime version) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final Map<UUID, Compiled> cache = new ConcurrentHashMap<>();
+
+    public PayloadTransformCache(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * The destination's compiled rules, or null if it has none.
+     */
+    public PayloadTransform resolve(Destination destination) {
+        if (destination.getTransform() == null) {
+            return null;
+        }
+        Compiled cached = cache.get(destination.getId());
+        if (cached != null && Objects.equals(cached.version(), destination.getUpdatedAt())) {
+            return cached.transform();
+        }
+        PayloadTransform transform;
+        try {
+            transform = PayloadTransform.compile(destination.getTransform(), objectMapper);
+        } catch (IllegalArgumentException e) {
+            // Checked when the destination is saved, so only rows written some other way get here
+            log.warn("Destination {} has an invalid transform, delivering payloads unchanged: {}",
+                    destination.getId(), e.getMessage());
+            transform = null;
+        }
+        cache.put(destination.getId(), new Compiled(transform, destination.getUpdatedAt()));
+        return transform;
+    }
+
+    public PayloadTransform compile(String spec) {
+        return PayloadTransform.compile(spec, objectMapper);
+    }
+}
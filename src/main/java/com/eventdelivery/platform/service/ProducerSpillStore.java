@@ -0,0 +1,203 @@
+package com.eventdelivery.platform.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Local append-only spill for records Kafka didn't accept. Each line is one
+ * JSON record, fsync'd on write so a crash after a failed send doesn't lose it.
+ * Writes block on the disk, so callers shouldn't be threads Kafka needs (see
+ * {@link KafkaProducerService}).
+ *
+ * Writes go to an active segment; {@link #drain} rotates it and replays closed
+ * segments oldest first, with a bounded number of sends awaiting their ack.
+ */
+@Component
+public class ProducerSpillStore {
+
+    private static final Logger log = LoggerFactory.getLogger(ProducerSpillStore.class);
+    private static final String SUFFIX = ".ndjson";
+
+    public record SpilledRecord(String topic, String key, String value) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+
+    private FileChannel active;
+    private Path activePath;
+    private long segmentSeq;
+
+    public ProducerSpillStore(ObjectMapper objectMapper,
+            @Value("${edp.producer.spill-dir:./spill}") String directory) {
+        this.objectMapper = objectMapper;
+        this.directory = Paths.get(directory);
+    }
+
+    public void append(SpilledRecord record) throws IOException {
+        appendAll(List.of(record));
+    }
+
+    // One fsync for the lot
+    public synchronized void appendAll(List<SpilledRecord> records) throws IOException {
+        if (active == null) {
+            Files.createDirectories(directory);
+            activePath = directory.resolve(
+                    String.format("spill-%013d-%06d%s", System.currentTimeMillis(), segmentSeq++, SUFFIX));
+            active = FileChannel.open(activePath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+        }
+        StringBuilder lines = new StringBuilder();
+        for (SpilledRecord record : records) {
+            lines.append(objectMapper.writeValueAsString(record)).append('\n');
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            active.write(buffer);
+        }
+        active.force(false);
+    }
+
+    /**
+     * Replays spilled records through the given async sender, with at most
+     * {@code window} sends unacked at a time. It stops sending at the first
+     * failed or late ack. Whatever wasn't acked stays on disk for the next round.
+     *
+     * @return number of records replayed
+     */
+    public int drain(Function<SpilledRecord, CompletableFuture<?>> sender, int window, long ackTimeoutMs)
+            throws IOException {
+        rotate();
+        if (!Files.isDirectory(directory)) {
+            return 0;
+        }
+
+        List<Path> segments;
+        try (Stream<Path> files = Files.list(directory)) {
+            segments = files.filter(p -> p.getFileName().toString().endsWith(SUFFIX)).sorted().toList();
+        }
+
+        int replayed = 0;
+        for (Path segment : segments) {
+            List<String> remaining = new ArrayList<>();
+            Deque<Replay> inFlight = new ArrayDeque<>();
+            boolean stopped = false;
+            try (BufferedReader reader = Files.newBufferedReader(segment, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    if (!stopped && inFlight.size() >= window) {
+                        if (awaitAck(inFlight.pollFirst(), remaining, ackTimeoutMs)) {
+                            replayed++;
+                        } else {
+                            stopped = true;
+                        }
+                    }
+                    if (stopped) {
+                        remaining.add(line);
+                        continue;
+                    }
+                    SpilledRecord record = objectMapper.readValue(line, SpilledRecord.class);
+                    try {
+                        inFlight.addLast(new Replay(line, sender.apply(record)));
+                    } catch (RuntimeException e) {
+                        log.debug("Spill replay still failing: {}", e.getMessage());
+                        stopped = true;
+                        remaining.add(line);
+                    }
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                if (awaitAck(inFlight.pollFirst(), remaining, ackTimeoutMs)) {
+                    replayed++;
+                }
+            }
+
+            if (remaining.isEmpty()) {
+                Files.delete(segment);
+            } else {
+                rewrite(segment, remaining);
+                break; // Kafka is still unhappy, try again later
+            }
+        }
+        return replayed;
+    }
+
+    // A failed or late ack goes back into the segment. A late one may still land, and then
+    // it's sent twice
+    private static boolean awaitAck(Replay replay, List<String> remaining, long ackTimeoutMs) {
+        try {
+            replay.ack().get(ackTimeoutMs, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.debug("Spill replay still failing: {}", e.getMessage());
+        }
+        remaining.add(replay.line());
+        return false;
+    }
+
+    private record Replay(String line, CompletableFuture<?> ack) {
+    }
+
+    // Swapped in whole, so a crash mid-write leaves the old segment rather than half of the new one.
+    // Records already replayed from the old one would be sent again, which is fine
+    private void rewrite(Path segment, List<String> lines) throws IOException {
+        Path temp = segment.resolveSibling(segment.getFileName() + ".tmp");
+        Files.write(temp, lines, StandardCharsets.UTF_8);
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            channel.force(false);
+        }
+        Files.move(temp, segment, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    public long pendingSegments() {
+        if (!Files.isDirectory(directory)) {
+            return 0;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(p -> p.getFileName().toString().endsWith(SUFFIX)).count();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    // Close the active segment so drain only ever reads files nobody is writing to
+    private synchronized void rotate() {
+        if (active == null) {
+            return;
+        }
+        try {
+            active.close();
+        } catch (IOException e) {
+            log.warn("Failed to close spill segment {}", activePath, e);
+        }
+        active = null;
+        activePath = null;
+    }
+}
@@ -15,11 +15,17 @@ public class RateLimiterService {
 
     // Using in-memory for now - TODO: move to Redis for prod
     private final Map<UUID, Bucket> cache = new ConcurrentHashMap<>();
+    private final Map<UUID, Bucket> ingestCache = new ConcurrentHashMap<>();
 
     public Bucket resolveBucket(UUID destinationId, int rps) {
         return cache.computeIfAbsent(destinationId, id -> newBucket(rps));
     }
 
+    // Separate from the delivery buckets - this one limits what we accept, not what we send
+    public Bucket resolveIngestBucket(UUID destinationId, int rps) {
+        return ingestCache.computeIfAbsent(destinationId, id -> newBucket(rps));
+    }
+
     private Bucket newBucket(int rps) {
         Refill refill = Refill.intervally(rps, Duration.ofSeconds(1));
         Bandwidth limit = Bandwidth.classic(rps, refill);
@@ -0,0 +1,63 @@
+package com.eventdelivery.platform.service;
+
+import com.eventdelivery.platform.model.Destination;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Region awareness. Every destination has a home region (this node's region if
+ * unset). Ingest in any region publishes to the home region's topics, and each
+ * region's dispatchers only consume their own, so webhook calls are made close
+ * to the receiver.
+ *
+ * Regional topics are the lane topic plus ".{region}", e.g. events.high.eu-west.
+ * With no region configured everything keeps the plain topic names and the
+ * original consumer group.
+ */
+@Component("regionRouter")
+public class RegionRouter {
+
+    private final String localRegion;
+    private final String baseConsumerGroup;
+
+    public RegionRouter(@Value("${edp.region.id:}") String localRegion,
+            @Value("${spring.kafka.consumer.group-id:dispatcher-group}") String baseConsumerGroup) {
+        this.localRegion = localRegion == null || localRegion.isBlank() ? null : localRegion.trim();
+        this.baseConsumerGroup = baseConsumerGroup;
+    }
+
+    public String localRegion() {
+        return localRegion;
+    }
+
+    public String homeRegion(Destination destination) {
+        return destination.getHomeRegion() != null ? destination.getHomeRegion() : localRegion;
+    }
+
+    public boolean isLocal(String region) {
+        return region == null || region.equals(localRegion);
+    }
+
+    public String topic(String baseTopic, String region) {
+        String r = region != null ? region : localRegion;
+        return r == null ? baseTopic : baseTopic + "." + r;
+    }
+
+    // Used from the @KafkaListener annotations via SpEL
+    public String localTopic(String baseTopic) {
+        return topic(baseTopic, localRegion);
+    }
+
+    // One group per region, so regions rebalance and scale independently
+    public String consumerGroup() {
+        return localRegion == null ? baseConsumerGroup : baseConsumerGroup + "-" + localRegion;
+    }
+
+    // Own group per isolated destination: joining the lane group would rebalance every
+    // lane listener each time a pool starts or stops
+    public String isolatedConsumerGroup(UUID destinationId) {
+        return consumerGroup() + "-isolated-" + destinationId;
+    }
+}
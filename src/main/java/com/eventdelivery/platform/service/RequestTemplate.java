@@ -0,0 +1,14 @@
+package com.eventdelivery.platform.service;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+
+import java.net.URI;
+import java.time.LocalDateTime;
+
+/**
+ * Pre-parsed request parts for a destination. Built once per destination
+ * version so the dispatcher doesn't re-parse the URL or headers JSON per event.
+ */
+public record RequestTemplate(URI uri, HttpMethod method, HttpHeaders headers, LocalDateTime version) {
+}
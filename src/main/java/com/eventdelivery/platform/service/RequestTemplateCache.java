@@ -0,0 +1,79 @@
+package com.eventdelivery.platform.service;
+
+import com.eventdelivery.platform.model.Destination;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class RequestTemplateCache {
+
+    private static final TypeReference<Map<String, String>> HEADER_MAP = new TypeReference<>() {
+    };
+
+    private final ObjectMapper objectMapper;
+    private final Map<UUID, RequestTemplate> cache = new ConcurrentHashMap<>();
+
+    public RequestTemplateCache(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Returns the cached template for the destination, rebuilding it only when
+     * the destination has changed since the template was built (updatedAt moved).
+     */
+    public RequestTemplate resolve(Destination destination) {
+        RequestTemplate cached = cache.get(destination.getId());
+        if (cached != null && Objects.equals(cached.version(), destination.getUpdatedAt())) {
+            return cached;
+        }
+        RequestTemplate template = build(destination);
+        cache.put(destination.getId(), template);
+        return template;
+    }
+
+    public void evict(UUID destinationId) {
+        cache.remove(destinationId);
+    }
+
+    public RequestTemplate build(Destination destination) {
+        URI uri = URI.create(destination.getUrl());
+        HttpMethod method = parseMethod(destination.getHttpMethod());
+        HttpHeaders headers = parseHeaders(destination.getHeaders());
+        return new RequestTemplate(uri, method, HttpHeaders.readOnlyHttpHeaders(headers), destination.getUpdatedAt());
+    }
+
+    public HttpMethod parseMethod(String httpMethod) {
+        if (httpMethod == null || httpMethod.isBlank()) {
+            return HttpMethod.POST;
+        }
+        return HttpMethod.valueOf(httpMethod.trim().toUpperCase());
+    }
+
+    public HttpHeaders parseHeaders(String headersJson) {
+        HttpHeaders headers = new HttpHeaders();
+        if (headersJson == null || headersJson.isBlank()) {
+            return headers;
+        }
+        try {
+            Map<String, String> parsed = objectMapper.readValue(headersJson, HEADER_MAP);
+            parsed.forEach(headers::add);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Destination headers must be a JSON object of strings", e);
+        }
+        // These are owned by the dispatcher, don't let a destination override them
+        headers.remove(HttpHeaders.CONTENT_TYPE);
+        headers.remove(HttpHeaders.CONTENT_LENGTH);
+        headers.remove("X-Edp-Signature");
+        return headers;
+    }
+}
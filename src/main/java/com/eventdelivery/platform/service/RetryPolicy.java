@@ -0,0 +1,84 @@
+package com.eventdelivery.platform.service;
+
+import com.eventdelivery.platform.model.Destination;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientResponseException;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Per-destination retry decisions: which failures are worth retrying and how
+ * long to wait before the next attempt.
+ */
+public final class RetryPolicy {
+
+    private RetryPolicy() {
+    }
+
+    /**
+     * 408, 425, 429 and 5xx are retryable. Any other 4xx means the receiver
+     * rejected the request itself, so sending it again won't help.
+     */
+    public static boolean isRetryable(int statusCode) {
+        return statusCode == 408 || statusCode == 425 || statusCode == 429 || statusCode >= 500;
+    }
+
+    /**
+     * Network trouble and HTTP errors are classified by status. Anything else
+     * (bad URI, bad headers, serialization) will fail the same way next time.
+     */
+    public static boolean isRetryable(Exception e) {
+        if (e instanceof RestClientResponseException responseException) {
+            return isRetryable(responseException.getStatusCode().value());
+        }
+        return e instanceof ResourceAccessException;
+    }
+
+    /**
+     * Decorrelated jitter: random between the base delay and 3x the previous
+     * delay, capped at the destination's max. Spreads retries out so a
+     * recovering endpoint isn't hit by every failed event at once.
+     *
+     * A Retry-After from the receiver wins over the computed delay, still
+     * capped at the max.
+     */
+    public static long nextDelayMs(Destination destination, long previousDelayMs, Long retryAfterMs) {
+        long base = Math.max(1, destination.getRetryBaseDelayMs());
+        long cap = Math.max(base, destination.getRetryMaxDelayMs());
+
+        if (retryAfterMs != null && retryAfterMs >= 0) {
+            return Math.min(cap, Math.max(retryAfterMs, base));
+        }
+
+        long previous = Math.max(base, previousDelayMs);
+        long upper = Math.max(base + 1, Math.min(cap, previous * 3));
+        return Math.min(cap, ThreadLocalRandom.current().nextLong(base, upper + 1));
+    }
+
+    /**
+     * Parses a Retry-After header: either delta-seconds or an HTTP-date.
+     *
+     * @return delay in ms, or null if absent or unparseable
+     */
+    public static Long parseRetryAfter(String header) {
+        if (header == null || header.isBlank()) {
+            return null;
+        }
+        String value = header.trim();
+        try {
+            return Math.max(0, Long.parseLong(value)) * 1000;
+        } catch (NumberFormatException ignored) {
+            // Not seconds, try the date form
+        }
+        try {
+            ZonedDateTime at = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME);
+            return Math.max(0, Duration.between(ZonedDateTime.now(at.getZone()), at).toMillis());
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
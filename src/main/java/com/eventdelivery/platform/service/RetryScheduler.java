@@ -0,0 +1,124 @@
+package com.eventdelivery.platform.service;
+
+import com.eventdelivery.platform.dto.EventMessage;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Delayed retries. Fixed retry topics can't give each destination its own
+ * delays, so failed messages are parked in a Redis sorted set scored by due
+ * time and re-published to their lane topic once due.
+ *
+ * Several nodes can poll the same set. A poll claims the due entries
+ * atomically by pushing their score out by the claim timeout, and an entry is
+ * only removed once Kafka has acked it - if the send fails or the node dies
+ * in between, the entry comes due again. Redis needs persistence (AOF) for
+ * parked retries to survive a restart; the lease on the FAILED row is the
+ * backstop if one is lost anyway.
+ */
+@Service
+public class RetryScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(RetryScheduler.class);
+    private static final String KEY = "edp:retries";
+
+    // Due entries, re-scored to the claim deadline so other pollers skip them
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> CLAIM_DUE = RedisScript.of(
+            "local due = redis.call('ZRANGEBYSCORE', KEYS[1], '-inf', ARGV[1], 'LIMIT', 0, ARGV[3]) "
+                    + "for _, member in ipairs(due) do redis.call('ZADD', KEYS[1], 'XX', ARGV[2], member) end "
+                    + "return due", List.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final KafkaProducerService kafkaProducerService;
+    private final ObjectMapper objectMapper;
+    private final int pollBatchSize;
+    private final long claimTimeoutMs;
+
+    public RetryScheduler(StringRedisTemplate redisTemplate, KafkaProducerService kafkaProducerService,
+            ObjectMapper objectMapper, @Value("${edp.retry.poll-batch-size:500}") int pollBatchSize,
+            @Value("${edp.retry.claim-timeout-ms:30000}") long claimTimeoutMs) {
+        this.redisTemplate = redisTemplate;
+        this.kafkaProducerService = kafkaProducerService;
+        this.objectMapper = objectMapper;
+        this.pollBatchSize = pollBatchSize;
+        this.claimTimeoutMs = claimTimeoutMs;
+    }
+
+    /**
+     * Parks the message until its delay is up. If Redis won't take it, the
+     * message is re-published to its lane right away instead: the delay is
+     * lost, the event isn't.
+     */
+    public void schedule(EventMessage message, long delayMs) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(message);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Error serializing event message", e);
+        }
+        try {
+            redisTemplate.opsForZSet().add(KEY, json, System.currentTimeMillis() + delayMs);
+            log.debug("Event {} scheduled for retry in {}ms (attempt {})", message.getEventId(), delayMs,
+                    message.getAttemptCount());
+        } catch (RuntimeException e) {
+            log.warn("Couldn't park event {} for retry ({}), re-publishing it now", message.getEventId(),
+                    e.getMessage());
+            kafkaProducerService.sendEvent(message);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${edp.retry.poll-interval-ms:200}")
+    public void releaseDue() {
+        long now = System.currentTimeMillis();
+        List<?> due;
+        try {
+            due = redisTemplate.execute(CLAIM_DUE, List.of(KEY), String.valueOf(now),
+                    String.valueOf(now + claimTimeoutMs), String.valueOf(pollBatchSize));
+        } catch (Exception e) {
+            log.warn("Failed to poll retry queue: {}", e.getMessage());
+            return;
+        }
+        if (due == null) {
+            return;
+        }
+        for (Object entry : due) {
+            String json = entry.toString();
+            EventMessage message;
+            try {
+                message = objectMapper.readValue(json, EventMessage.class);
+            } catch (Exception e) {
+                log.error("Dropping unreadable retry entry: {}", json, e);
+                remove(json);
+                continue;
+            }
+            // Off the set only once Kafka has it; a failed send comes due again after the claim timeout
+            kafkaProducerService.sendEventAcked(message, json).whenComplete((result, ex) -> {
+                if (ex != null) {
+                    log.warn("Re-publishing retry of event {} failed, will try again: {}", message.getEventId(),
+                            ex.getMessage());
+                } else {
+                    remove(json);
+                }
+            });
+        }
+    }
+
+    private void remove(String json) {
+        try {
+            redisTemplate.opsForZSet().remove(KEY, json);
+        } catch (Exception e) {
+            // Left in the set, it gets re-published once the claim runs out - a duplicate, not a loss
+            log.warn("Failed to remove released retry entry: {}", e.getMessage());
+        }
+    }
+}
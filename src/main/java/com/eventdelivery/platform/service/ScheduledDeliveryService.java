@@ -0,0 +1,286 @@
+package com.eventdelivery.platform.service;
+
+import com.eventdelivery.platform.dto.EventMessage;
+import com.eventdelivery.platform.dto.EventRequest;
+import com.eventdelivery.platform.model.Event;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Delivery at a later time. Scheduled events are written to
+ * scheduled_deliveries, bucketed by deliver_at. Only the current bucket and a
+ * few ahead are kept in memory, in a {@link TimingWheel}; later buckets are
+ * loaded as the clock gets to them. Nothing scans events, and there's no
+ * per-event timer.
+ *
+ * Every node loads the same buckets. Releasing deletes the row, so only the
+ * node whose DELETE wins publishes - the others find nothing to release.
+ */
+@Service
+public class ScheduledDeliveryService {
+
+    private static final Logger log = LoggerFactory.getLogger(ScheduledDeliveryService.class);
+
+    private static final String INSERT = """
+            INSERT INTO scheduled_deliveries (event_id, bucket_start, deliver_at) VALUES (?, ?, ?)
+            """;
+
+    // Keyset-paged so a busy bucket doesn't come back as one huge result
+    private static final String LOAD = """
+            SELECT event_id, bucket_start, deliver_at FROM scheduled_deliveries
+            WHERE (bucket_start, event_id) > (?, ?) AND bucket_start < ?
+            ORDER BY bucket_start, event_id
+            LIMIT ?
+            """;
+
+    // Deletes the schedule rows and takes the PROCESSING lease in one statement,
+    // so a crash before the Kafka send leaves the event to the lease reaper
+    private static final String RELEASE = """
+            WITH released AS (
+                DELETE FROM scheduled_deliveries WHERE %s RETURNING event_id)
+            UPDATE events e SET status = 'PROCESSING', lease_expires_at = ?, updated_at = ?
+            FROM released r, destinations d
+            WHERE e.id = r.event_id AND d.id = e.destination_id AND e.status = 'SCHEDULED'
+            RETURNING e.id, e.destination_id, e.payload, e.priority, e.idempotency_key, e.attempt_count, d.home_region
+            """;
+
+    private static final String RELEASE_DUE = RELEASE.formatted("event_id = ANY(?) AND deliver_at <= ?");
+
+    // Rows whose bucket has long passed but that no wheel released, e.g. scheduled
+    // into an already-loaded bucket on a node that then went away
+    private static final String RELEASE_OVERDUE = RELEASE.formatted("""
+            event_id IN (
+                    SELECT event_id FROM scheduled_deliveries
+                    WHERE bucket_start < ?
+                    ORDER BY bucket_start
+                    LIMIT ?
+                    FOR UPDATE SKIP LOCKED)""");
+
+    private static final UUID MIN_UUID = new UUID(0, 0);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final KafkaProducerService kafkaProducerService;
+    private final EventStatusCache eventStatusCache;
+    private final LeaseReaper leaseReaper;
+    private final long bucketMs;
+    private final int lookaheadBuckets;
+    private final int batchSize;
+    private final long maxDelayMs;
+    private final Counter releasedCounter;
+
+    // Guarded by this
+    private final TimingWheel<UUID> wheel;
+    private final List<UUID> dueNow = new ArrayList<>();
+    // Buckets before this are in the wheel (or released already)
+    private volatile long loadedUntil = 0;
+
+    public ScheduledDeliveryService(JdbcTemplate jdbcTemplate, KafkaProducerService kafkaProducerService,
+            EventStatusCache eventStatusCache, LeaseReaper leaseReaper, MeterRegistry meterRegistry,
+            @Value("${edp.schedule.bucket-ms:60000}") long bucketMs,
+            @Value("${edp.schedule.lookahead-buckets:2}") int lookaheadBuckets,
+            @Value("${edp.schedule.tick-ms:100}") long tickMs,
+            @Value("${edp.schedule.wheel-size:64}") int wheelSize,
+            @Value("${edp.schedule.batch-size:1000}") int batchSize,
+            @Value("${edp.schedule.max-delay-days:30}") int maxDelayDays) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.kafkaProducerService = kafkaProducerService;
+        this.eventStatusCache = eventStatusCache;
+        this.leaseReaper = leaseReaper;
+        this.bucketMs = bucketMs;
+        this.lookaheadBuckets = lookaheadBuckets;
+        this.batchSize = batchSize;
+        this.maxDelayMs = maxDelayDays * 86_400_000L;
+        this.wheel = new TimingWheel<>(tickMs, wheelSize, System.currentTimeMillis());
+        this.releasedCounter = meterRegistry.counter("edp.scheduler.released");
+        meterRegistry.gauge("edp.scheduler.wheel.size", this, ScheduledDeliveryService::wheelSize);
+    }
+
+    /**
+     * When the request asks for the event to go out, or null to deliver it right away.
+     */
+    public LocalDateTime resolveDeliverAt(EventRequest request) {
+        if (request.getDeliverAt() != null && request.getDelayMs() != null) {
+            throw new IllegalArgumentException("Set either deliverAt or delayMs, not both");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime deliverAt = request.getDelayMs() != null
+                ? now.plusNanos(request.getDelayMs() * 1_000_000)
+                : request.getDeliverAt();
+        if (deliverAt == null || !deliverAt.isAfter(now)) {
+            return null;
+        }
+        if (deliverAt.isAfter(now.plusNanos(maxDelayMs * 1_000_000))) {
+            throw new IllegalArgumentException("Events can be scheduled at most " + maxDelayMs / 86_400_000
+                    + " days ahead");
+        }
+        return deliverAt;
+    }
+
+    /**
+     * Stores the schedule for an event that's been saved (and flushed) as
+     * SCHEDULED. Joins the caller's transaction.
+     */
+    public void schedule(Event event) {
+        long deliverAtMs = toMillis(event.getDeliverAt());
+        jdbcTemplate.update(INSERT, event.getId(), Timestamp.valueOf(toLocal(bucketStart(deliverAtMs))),
+                Timestamp.valueOf(event.getDeliverAt()));
+
+        // Later buckets get loaded when their time comes. Checked against the
+        // horizon rather than loadedUntil so a load running right now can't miss it
+        if (deliverAtMs >= horizon(System.currentTimeMillis())) {
+            return;
+        }
+        UUID eventId = event.getId();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Before commit the release would find no row
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    addToWheel(eventId, deliverAtMs);
+                }
+            });
+        } else {
+            addToWheel(eventId, deliverAtMs);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${edp.schedule.tick-ms:100}")
+    public void tick() {
+        List<UUID> due;
+        synchronized (this) {
+            wheel.advance(System.currentTimeMillis(), dueNow::add);
+            if (dueNow.isEmpty()) {
+                return;
+            }
+            due = new ArrayList<>(dueNow);
+            dueNow.clear();
+        }
+
+        for (int i = 0; i < due.size(); i += batchSize) {
+            List<UUID> batch = due.subList(i, Math.min(i + batchSize, due.size()));
+            try {
+                LocalDateTime now = LocalDateTime.now();
+                publish(jdbcTemplate.query(RELEASE_DUE, ps -> {
+                    ps.setArray(1, ps.getConnection().createArrayOf("uuid", batch.toArray()));
+                    ps.setTimestamp(2, Timestamp.valueOf(now));
+                    ps.setTimestamp(3, Timestamp.valueOf(leaseReaper.newLease()));
+                    ps.setTimestamp(4, Timestamp.valueOf(now));
+                }, LeaseReaper.EVENT_MESSAGE));
+            } catch (Exception e) {
+                log.error("Failed to release {} scheduled events, leaving them to the overdue sweep",
+                        batch.size(), e);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${edp.schedule.load-interval-ms:10000}")
+    public void loadBuckets() {
+        long now = System.currentTimeMillis();
+        try {
+            long horizon = horizon(now);
+            if (horizon > loadedUntil) {
+                int loaded = load(loadedUntil, horizon);
+                loadedUntil = horizon;
+                if (loaded > 0) {
+                    log.debug("Loaded {} scheduled events due before {}", loaded, toLocal(horizon));
+                }
+            }
+            releaseOverdue(bucketStart(now) - bucketMs);
+        } catch (Exception e) {
+            log.error("Failed to load scheduled delivery buckets", e);
+        }
+    }
+
+    private int load(long fromMs, long toMs) {
+        Timestamp to = Timestamp.valueOf(toLocal(toMs));
+        Timestamp afterBucket = Timestamp.valueOf(toLocal(fromMs));
+        UUID afterId = MIN_UUID;
+        int total = 0;
+        while (true) {
+            List<Object[]> page = jdbcTemplate.query(LOAD, (rs, rowNum) -> new Object[] {
+                    rs.getObject("event_id", UUID.class),
+                    rs.getTimestamp("bucket_start"),
+                    rs.getTimestamp("deliver_at") }, afterBucket, afterId, to, batchSize);
+            synchronized (this) {
+                for (Object[] row : page) {
+                    addToWheel((UUID) row[0], ((Timestamp) row[2]).getTime());
+                }
+            }
+            total += page.size();
+            if (page.size() < batchSize) {
+                return total;
+            }
+            Object[] last = page.get(page.size() - 1);
+            afterId = (UUID) last[0];
+            afterBucket = (Timestamp) last[1];
+        }
+    }
+
+    private void releaseOverdue(long cutoffMs) {
+        Timestamp cutoff = Timestamp.valueOf(toLocal(cutoffMs));
+        List<EventMessage> released;
+        do {
+            LocalDateTime now = LocalDateTime.now();
+            released = jdbcTemplate.query(RELEASE_OVERDUE, LeaseReaper.EVENT_MESSAGE, cutoff, batchSize,
+                    Timestamp.valueOf(leaseReaper.newLease()), Timestamp.valueOf(now));
+            if (!released.isEmpty()) {
+                log.warn("Released {} overdue scheduled events", released.size());
+            }
+            publish(released);
+        } while (released.size() == batchSize);
+    }
+
+    private void publish(List<EventMessage> messages) {
+        if (messages.isEmpty()) {
+            return;
+        }
+        for (EventMessage message : messages) {
+            kafkaProducerService.sendEvent(message);
+        }
+        eventStatusCache.evictAll(messages.stream().map(EventMessage::getEventId).toList());
+        releasedCounter.increment(messages.size());
+    }
+
+    private synchronized void addToWheel(UUID eventId, long deliverAtMs) {
+        if (!wheel.add(eventId, deliverAtMs)) {
+            dueNow.add(eventId);
+        }
+    }
+
+    private synchronized int wheelSize() {
+        return wheel.size() + dueNow.size();
+    }
+
+    // End of the window kept in memory: the current bucket plus lookaheadBuckets
+    private long horizon(long nowMs) {
+        return bucketStart(nowMs) + (lookaheadBuckets + 1) * bucketMs;
+    }
+
+    private long bucketStart(long timeMs) {
+        return timeMs - Math.floorMod(timeMs, bucketMs);
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime toLocal(long timeMs) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(timeMs), ZoneId.systemDefault());
+    }
+}
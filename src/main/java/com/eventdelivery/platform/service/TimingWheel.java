@@ -0,0 +1,121 @@
+package com.eventdelivery.platform.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel. Level 0 has {@code wheelSize} slots of
+ * {@code tickMs} each; every level above has slots as wide as the whole level
+ * below it. Adding an entry is O(1), and entries only move down a level when
+ * their slot comes up, so there's no per-entry timer and no scanning.
+ *
+ * Not thread-safe - callers synchronize.
+ */
+public final class TimingWheel<T> {
+
+    private final long tickMs;
+    private final int wheelSize;
+    private final List<Level<T>> levels = new ArrayList<>();
+    // Start of the next level-0 slot to expire, always a multiple of tickMs
+    private long cursor;
+    private int size;
+
+    public TimingWheel(long tickMs, int wheelSize, long startMs) {
+        if (tickMs <= 0 || wheelSize < 2) {
+            throw new IllegalArgumentException("tickMs must be positive and wheelSize at least 2");
+        }
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        this.cursor = startMs - Math.floorMod(startMs, tickMs);
+        levels.add(new Level<>(tickMs, wheelSize));
+    }
+
+    /**
+     * @return false if the entry is already due - the caller handles it now
+     */
+    public boolean add(T item, long expirationMs) {
+        if (expirationMs < cursor) {
+            return false;
+        }
+        insert(new Entry<>(item, expirationMs));
+        size++;
+        return true;
+    }
+
+    /**
+     * Moves the wheel up to {@code nowMs}, handing every entry that has come
+     * due to {@code due}. Entries fire once their whole tick has passed, so
+     * never early.
+     */
+    public void advance(long nowMs, Consumer<T> due) {
+        while (cursor + tickMs <= nowMs) {
+            List<Entry<T>> expired = levels.get(0).take(cursor);
+            size -= expired.size();
+            expired.forEach(e -> due.accept(e.item()));
+            cursor += tickMs;
+
+            // A higher level's slot starts here - spread it over the levels below
+            for (int i = 1; i < levels.size(); i++) {
+                Level<T> level = levels.get(i);
+                if (Math.floorMod(cursor, level.tickMs) != 0) {
+                    break;
+                }
+                level.take(cursor).forEach(this::insert);
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void insert(Entry<T> entry) {
+        for (int i = 0;; i++) {
+            if (i == levels.size()) {
+                Level<T> below = levels.get(i - 1);
+                levels.add(new Level<>(below.tickMs * wheelSize, wheelSize));
+            }
+            Level<T> level = levels.get(i);
+            long levelStart = cursor - Math.floorMod(cursor, level.tickMs);
+            if (entry.expirationMs() < levelStart + level.tickMs * wheelSize) {
+                level.add(entry);
+                return;
+            }
+        }
+    }
+
+    private record Entry<T>(T item, long expirationMs) {
+    }
+
+    private static final class Level<T> {
+        private final long tickMs;
+        private final List<List<Entry<T>>> slots;
+
+        Level(long tickMs, int wheelSize) {
+            this.tickMs = tickMs;
+            this.slots = new ArrayList<>(wheelSize);
+            for (int i = 0; i < wheelSize; i++) {
+                slots.add(new ArrayList<>());
+            }
+        }
+
+        void add(Entry<T> entry) {
+            slots.get(slot(entry.expirationMs())).add(entry);
+        }
+
+        List<Entry<T>> take(long timeMs) {
+            int slot = slot(timeMs);
+            List<Entry<T>> entries = slots.get(slot);
+            if (entries.isEmpty()) {
+                return entries;
+            }
+            slots.set(slot, new ArrayList<>());
+            return entries;
+        }
+
+        private int slot(long timeMs) {
+            return (int) Math.floorMod(Math.floorDiv(timeMs, tickMs), (long) slots.size());
+        }
+    }
+}
@@ -0,0 +1,2 @@
+-- Region whose dispatchers deliver to this destination. NULL = whichever region ingested it
+ALTER TABLE destinations ADD COLUMN home_region VARCHAR(64);
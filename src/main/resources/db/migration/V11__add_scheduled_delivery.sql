@@ -0,0 +1,13 @@
+-- Requested delivery time; NULL = deliver right away
+ALTER TABLE events ADD COLUMN deliver_at TIMESTAMP;
+
+-- Pending scheduled deliveries, bucketed by time. The scheduler loads a few
+-- buckets ahead into memory and deletes each row as it releases the event,
+-- so this only ever holds what is still in the future
+CREATE TABLE scheduled_deliveries (
+    event_id UUID PRIMARY KEY REFERENCES events(id) ON DELETE CASCADE,
+    bucket_start TIMESTAMP NOT NULL,
+    deliver_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_scheduled_deliveries_bucket ON scheduled_deliveries(bucket_start, event_id);
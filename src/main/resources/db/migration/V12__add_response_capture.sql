@@ -0,0 +1,4 @@
+-- How much of the receiver's response goes into delivery_attempts.response_body
+ALTER TABLE destinations ADD COLUMN response_capture VARCHAR(16) NOT NULL DEFAULT 'PREFIX';
+ALTER TABLE destinations ADD COLUMN response_capture_bytes INTEGER NOT NULL DEFAULT 1000;
+ALTER TABLE destinations ADD COLUMN response_capture_on_failure BOOLEAN NOT NULL DEFAULT FALSE;
@@ -0,0 +1,2 @@
+-- Per-destination filter/projection rules (JSON), see PayloadTransform. NULL = deliver every payload as is
+ALTER TABLE destinations ADD COLUMN transform TEXT;
@@ -0,0 +1,6 @@
+-- Parked retries keep a lease on their FAILED row, so the reaper's index has to cover them too.
+-- Built concurrently (see the .conf next to this file) so writes to events aren't blocked meanwhile
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_events_lease ON events(lease_expires_at)
+    WHERE status IN ('PROCESSING', 'FAILED');
+
+DROP INDEX CONCURRENTLY IF EXISTS idx_events_processing_lease;
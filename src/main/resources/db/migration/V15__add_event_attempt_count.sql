@@ -0,0 +1,3 @@
+-- Failed attempts so far, so a re-enqueue from the reaper carries on counting instead
+-- of starting over. Constant default, so no table rewrite
+ALTER TABLE events ADD COLUMN attempt_count INTEGER NOT NULL DEFAULT 0;
@@ -0,0 +1,4 @@
+ALTER TABLE destinations ADD COLUMN batch_enabled BOOLEAN NOT NULL DEFAULT FALSE;
+ALTER TABLE destinations ADD COLUMN batch_max_events INTEGER;
+ALTER TABLE destinations ADD COLUMN batch_max_bytes INTEGER;
+ALTER TABLE destinations ADD COLUMN batch_linger_ms INTEGER;
@@ -0,0 +1 @@
+ALTER TABLE events ADD COLUMN priority VARCHAR(20) NOT NULL DEFAULT 'NORMAL';
@@ -0,0 +1 @@
+ALTER TABLE destinations ADD COLUMN ingest_quota_rps INTEGER;
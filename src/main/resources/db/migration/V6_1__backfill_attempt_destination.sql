@@ -0,0 +1,50 @@
+-- Runs outside a transaction (see the .conf) so each batch commits on its own: row locks
+-- are held for one batch at a time and a failure keeps what's done. Rows the app writes
+-- meanwhile already have destination_id, and re-running skips the ones that are done
+DO $$
+DECLARE
+    last_id UUID := '00000000-0000-0000-0000-000000000000';
+    next_id UUID;
+BEGIN
+    LOOP
+        -- Last id of the next 10k (no max() for uuid)
+        SELECT id INTO next_id
+        FROM (SELECT id FROM delivery_attempts WHERE id > last_id ORDER BY id LIMIT 10000) batch
+        ORDER BY id DESC LIMIT 1;
+        EXIT WHEN next_id IS NULL;
+
+        UPDATE delivery_attempts da
+        SET destination_id = e.destination_id
+        FROM events e
+        WHERE e.id = da.event_id AND da.id > last_id AND da.id <= next_id AND da.destination_id IS NULL;
+
+        last_id := next_id;
+        COMMIT;
+    END LOOP;
+END $$;
+
+-- Seed the rollup from history, once the destinations are filled in
+INSERT INTO delivery_attempt_stats (destination_id, bucket_start, latency_bucket, attempts, successes, total_duration_ms)
+SELECT destination_id,
+       date_trunc('hour', attempted_at),
+       CASE
+           WHEN duration_ms <= 5 THEN 0
+           WHEN duration_ms <= 10 THEN 1
+           WHEN duration_ms <= 25 THEN 2
+           WHEN duration_ms <= 50 THEN 3
+           WHEN duration_ms <= 100 THEN 4
+           WHEN duration_ms <= 250 THEN 5
+           WHEN duration_ms <= 500 THEN 6
+           WHEN duration_ms <= 1000 THEN 7
+           WHEN duration_ms <= 2500 THEN 8
+           WHEN duration_ms <= 5000 THEN 9
+           WHEN duration_ms <= 10000 THEN 10
+           WHEN duration_ms <= 30000 THEN 11
+           ELSE 12
+       END,
+       COUNT(*),
+       COUNT(*) FILTER (WHERE success),
+       COALESCE(SUM(duration_ms), 0)
+FROM delivery_attempts
+WHERE destination_id IS NOT NULL AND attempted_at IS NOT NULL
+GROUP BY 1, 2, 3;
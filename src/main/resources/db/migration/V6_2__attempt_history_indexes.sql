@@ -0,0 +1,6 @@
+-- Keyset pagination indexes: newest first, id breaks ties.
+-- CONCURRENTLY (see the .conf) so attempts keep being written while they build
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_attempts_event_time
+    ON delivery_attempts(event_id, attempted_at DESC, id DESC);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_attempts_destination_time
+    ON delivery_attempts(destination_id, attempted_at DESC, id DESC);
@@ -0,0 +1,16 @@
+-- Denormalized so attempts can be queried by destination without joining events.
+-- Only the column and the (empty) rollup table here; the backfill is V6_1 and the
+-- indexes V6_2, so nothing holds a lock on delivery_attempts for long
+ALTER TABLE delivery_attempts ADD COLUMN destination_id UUID;
+
+-- Hourly per-destination rollup, one row per latency bucket, maintained incrementally by the app.
+-- latency_bucket upper bounds (ms): 5,10,25,50,100,250,500,1000,2500,5000,10000,30000, 12 = slower
+CREATE TABLE delivery_attempt_stats (
+    destination_id UUID NOT NULL,
+    bucket_start TIMESTAMP NOT NULL,
+    latency_bucket SMALLINT NOT NULL,
+    attempts BIGINT NOT NULL DEFAULT 0,
+    successes BIGINT NOT NULL DEFAULT 0,
+    total_duration_ms BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (destination_id, bucket_start, latency_bucket)
+);
@@ -0,0 +1,3 @@
+ALTER TABLE destinations ADD COLUMN max_attempts INTEGER NOT NULL DEFAULT 5;
+ALTER TABLE destinations ADD COLUMN retry_base_delay_ms INTEGER NOT NULL DEFAULT 1000;
+ALTER TABLE destinations ADD COLUMN retry_max_delay_ms INTEGER NOT NULL DEFAULT 300000;
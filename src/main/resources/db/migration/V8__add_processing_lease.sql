@@ -0,0 +1,10 @@
+-- PROCESSING is a lease: whoever set it has until lease_expires_at to finish
+ALTER TABLE events ADD COLUMN lease_expires_at TIMESTAMP;
+
+-- Events already stuck in PROCESSING get a lease that's due soon
+UPDATE events
+SET lease_expires_at = COALESCE(updated_at, created_at, CURRENT_TIMESTAMP) + INTERVAL '5 minutes'
+WHERE status = 'PROCESSING';
+
+-- Reaper scans only expired PROCESSING rows, so keep the index to exactly those
+CREATE INDEX idx_events_processing_lease ON events(lease_expires_at) WHERE status = 'PROCESSING';
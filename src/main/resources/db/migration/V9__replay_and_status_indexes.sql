@@ -0,0 +1,9 @@
+-- Built CONCURRENTLY (see the .conf next to this file) so ingest and the dispatcher
+-- keep writing to events while the indexes build
+
+-- Replay without a status filter: destination_id = ? AND created_at >= ?, walked in created_at order
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_events_destination_created ON events(destination_id, created_at, id);
+
+-- Replay filtered by status: equality on both leading columns, range on created_at
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_events_destination_status_created
+    ON events(destination_id, status, created_at);
@@ -0,0 +1,151 @@
+package com.eventdelivery.platform;
+
+import com.eventdelivery.platform.dto.DestinationRequest;
+import com.eventdelivery.platform.dto.EventRequest;
+import com.eventdelivery.platform.model.Destination;
+import com.eventdelivery.platform.model.Event;
+import com.eventdelivery.platform.model.EventStatus;
+import com.eventdelivery.platform.repository.EventRepository;
+import com.eventdelivery.platform.service.DestinationService;
+import com.eventdelivery.platform.service.EventService;
+import com.sun.net.httpserver.HttpServer;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import redis.embedded.RedisServer;
+
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+
+/**
+ * Two nodes in different regions ({@code us} and {@code eu}) on one embedded
+ * Kafka, sharing Postgres and Redis as in production. An event ingested in us
+ * for a destination homed in eu has to go out on eu's lane topic and be
+ * delivered by eu's consumer group, with us's group never touching it.
+ */
+@EmbeddedKafka(kraft = true)
+class MultiRegionRoutingTest {
+
+    private static EmbeddedPostgres postgres;
+    private static RedisServer redis;
+    private static HttpServer receiver;
+    private static final BlockingQueue<String> received = new LinkedBlockingQueue<>();
+    private static ConfigurableApplicationContext us;
+    private static ConfigurableApplicationContext eu;
+
+    @BeforeAll
+    static void startRegions() throws Exception {
+        // initdb refuses to run as root
+        assumeFalse("root".equals(System.getProperty("user.name")), "embedded Postgres can't run as root");
+
+        postgres = EmbeddedPostgres.builder().start();
+        int redisPort = freePort();
+        redis = new RedisServer(redisPort);
+        redis.start();
+
+        receiver = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        receiver.createContext("/hook", exchange -> {
+            received.add(new String(exchange.getRequestBody().readAllBytes()));
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        receiver.start();
+
+        us = startRegion("us", redisPort);
+        eu = startRegion("eu", redisPort);
+    }
+
+    private static ConfigurableApplicationContext startRegion(String region, int redisPort) {
+        // As arguments, since builder properties rank below application.yml
+        return new SpringApplicationBuilder(EventDeliveryPlatformApplication.class).run(
+                "--edp.region.id=" + region,
+                "--server.port=0",
+                "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                "--spring.datasource.username=postgres",
+                "--spring.datasource.password=",
+                "--spring.data.redis.port=" + redisPort,
+                "--spring.kafka.bootstrap-servers=" + System.getProperty(EmbeddedKafkaBroker.SPRING_EMBEDDED_KAFKA_BROKERS),
+                "--edp.producer.spill-dir=target/spill-" + region);
+    }
+
+    @AfterAll
+    static void stopRegions() throws Exception {
+        if (eu != null) {
+            eu.close();
+        }
+        if (us != null) {
+            us.close();
+        }
+        if (receiver != null) {
+            receiver.stop(0);
+        }
+        if (redis != null) {
+            redis.stop();
+        }
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @Test
+    void eventIngestedInOneRegionIsDeliveredByTheDestinationsHomeRegion() throws Exception {
+        DestinationRequest destinationRequest = new DestinationRequest();
+        destinationRequest.setName("eu receiver");
+        destinationRequest.setUrl("http://localhost:" + receiver.getAddress().getPort() + "/hook");
+        destinationRequest.setHttpMethod("POST");
+        destinationRequest.setHomeRegion("eu");
+        Destination destination = us.getBean(DestinationService.class).createDestination(destinationRequest);
+
+        EventRequest eventRequest = new EventRequest();
+        eventRequest.setDestinationId(destination.getId());
+        eventRequest.setPayload("{\"order\":42}");
+        Event event = us.getBean(EventService.class).receiveEvent(eventRequest, null);
+
+        assertThat(received.poll(60, TimeUnit.SECONDS)).isEqualTo("{\"order\":42}");
+        EventRepository events = eu.getBean(EventRepository.class);
+        await().atMost(Duration.ofSeconds(30))
+                .until(() -> events.findById(event.getId()).orElseThrow().getStatus() == EventStatus.DELIVERED);
+
+        try (AdminClient admin = AdminClient.create(Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG,
+                System.getProperty(EmbeddedKafkaBroker.SPRING_EMBEDDED_KAFKA_BROKERS)))) {
+            assertThat(committed(admin, "dispatcher-group-eu", "events.primary.eu")).isEqualTo(1);
+            assertThat(committed(admin, "dispatcher-group-us", "events.primary.eu")).isZero();
+            assertThat(committed(admin, "dispatcher-group-us", "events.primary.us")).isZero();
+        }
+        assertThat(received).isEmpty();
+    }
+
+    // Sum of the group's committed offsets on the topic - records it has consumed there
+    private static long committed(AdminClient admin, String group, String topic) throws Exception {
+        Map<TopicPartition, OffsetAndMetadata> offsets = admin.listConsumerGroupOffsets(group)
+                .partitionsToOffsetAndMetadata().get(10, TimeUnit.SECONDS);
+        return offsets.entrySet().stream()
+                .filter(e -> e.getKey().topic().equals(topic) && e.getValue() != null)
+                .mapToLong(e -> e.getValue().offset())
+                .sum();
+    }
+
+    private static int freePort() throws Exception {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.eventdelivery.platform.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+
+/**
+ * Runs the Flyway migrations on an embedded Postgres, loads a realistic spread
+ * of events and checks that the replay queries are planned on their V9
+ * indexes - with the literal values (custom plan) and as a prepared statement
+ * with bind parameters (generic plan, which is what a pooled JDBC statement
+ * ends up with).
+ */
+class EventIndexPlanTest {
+
+    private static final String DESTINATION = "00000000-0000-0000-0000-000000000042";
+
+    private static EmbeddedPostgres postgres;
+    private static JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeAll
+    static void startPostgres() throws Exception {
+        // initdb refuses to run as root
+        assumeFalse("root".equals(System.getProperty("user.name")), "embedded Postgres can't run as root");
+
+        postgres = EmbeddedPostgres.builder().start();
+        // Same lock setting as application.yml, or the CONCURRENTLY migrations block on it
+        Flyway.configure().dataSource(postgres.getPostgresDatabase()).locations("classpath:db/migration")
+                .configuration(Map.of("flyway.postgresql.transactional.lock", "false")).load().migrate();
+        jdbcTemplate = new JdbcTemplate(postgres.getPostgresDatabase());
+
+        // 200 destinations x 500 events over 30 days, mostly delivered - roughly what a live table looks like
+        jdbcTemplate.execute("""
+                INSERT INTO destinations (id, name, url, http_method, created_at)
+                SELECT ('00000000-0000-0000-0000-' || lpad(d::text, 12, '0'))::uuid, 'd' || d,
+                       'http://localhost/' || d, 'POST', now()
+                FROM generate_series(1, 200) d
+                """);
+        jdbcTemplate.execute("""
+                INSERT INTO events (id, payload, status, destination_id, created_at, updated_at)
+                SELECT gen_random_uuid(), '{}',
+                       CASE WHEN i % 20 = 0 THEN 'FAILED' WHEN i % 50 = 1 THEN 'RECEIVED' ELSE 'DELIVERED' END,
+                       ('00000000-0000-0000-0000-' || lpad((i % 200 + 1)::text, 12, '0'))::uuid,
+                       now() - (i % 43200) * interval '1 minute', now()
+                FROM generate_series(1, 100000) i
+                """);
+        jdbcTemplate.execute("ANALYZE events");
+    }
+
+    @AfterAll
+    static void stopPostgres() throws Exception {
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"auto", "force_generic_plan"})
+    void replayWithoutStatusUsesDestinationCreatedIndex(String planCacheMode) throws Exception {
+        List<String> indexes = indexesUsed(planCacheMode,
+                "PREPARE replay(uuid, timestamp) AS SELECT * FROM events "
+                        + "WHERE destination_id = $1 AND created_at >= $2 ORDER BY created_at, id",
+                "EXECUTE replay('" + DESTINATION + "', now() - interval '1 day')");
+
+        assertThat(indexes).containsExactly("idx_events_destination_created");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"auto", "force_generic_plan"})
+    void replayByStatusUsesDestinationStatusCreatedIndex(String planCacheMode) throws Exception {
+        List<String> indexes = indexesUsed(planCacheMode,
+                "PREPARE replay_status(uuid, varchar, timestamp) AS SELECT * FROM events "
+                        + "WHERE destination_id = $1 AND status = $2 AND created_at >= $3 ORDER BY created_at",
+                "EXECUTE replay_status('" + DESTINATION + "', 'FAILED', now() - interval '1 day')");
+
+        assertThat(indexes).containsExactly("idx_events_destination_status_created");
+    }
+
+    // Prepare and explain on one connection, so the session settings and the statement stick
+    private List<String> indexesUsed(String planCacheMode, String prepare, String execute) throws Exception {
+        return jdbcTemplate.execute((java.sql.Connection connection) -> {
+            try (var statement = connection.createStatement()) {
+                statement.execute("SET plan_cache_mode = " + planCacheMode);
+                statement.execute("DEALLOCATE ALL");
+                statement.execute(prepare);
+                try (var rs = statement.executeQuery("EXPLAIN (FORMAT JSON) " + execute)) {
+                    rs.next();
+                    List<String> indexes = new ArrayList<>();
+                    collectIndexes(readPlan(rs.getString(1)), indexes);
+                    return indexes;
+                }
+            }
+        });
+    }
+
+    private JsonNode readPlan(String json) {
+        try {
+            return objectMapper.readTree(json).get(0).get("Plan");
+        } catch (Exception e) {
+            throw new IllegalStateException("Unreadable plan: " + json, e);
+        }
+    }
+
+    private static void collectIndexes(JsonNode plan, List<String> indexes) {
+        if (plan.has("Index Name")) {
+            indexes.add(plan.get("Index Name").asText());
+        }
+        if (plan.has("Plans")) {
+            plan.get("Plans").forEach(child -> collectIndexes(child, indexes));
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.eventdelivery.platform.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Filter and projection rules run against payloads read with the streaming
+ * parser. The early-exit cases use payloads that break after the last thing a
+ * rule needs: if the read went on, the parse error would make the payload go
+ * out whole instead.
+ */
+class PayloadTransformTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private PayloadTransform compile(String spec) {
+        return PayloadTransform.compile(spec, objectMapper);
+    }
+
+    @Test
+    void blankOrEmptySpecCompilesToNothing() {
+        assertThat(compile(null)).isNull();
+        assertThat(compile(" ")).isNull();
+        assertThat(compile("{\"filter\": [], \"fields\": {}}")).isNull();
+    }
+
+    @Test
+    void rejectsInvalidSpecs() {
+        assertThatThrownBy(() -> compile("{\"sort\": []}")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> compile("{\"filter\": [{\"path\": \"a\", \"op\": \"like\", \"value\": 1}]}"))
+                .hasMessage("Unknown filter op: like");
+        assertThatThrownBy(() -> compile("{\"fields\": {\"a\": \"x\", \"b\": \"x\"}}"))
+                .hasMessage("Two fields map to x");
+        assertThatThrownBy(() -> compile("{\"fields\": {\"a..b\": \"x\"}}")).hasMessage("Invalid path: a..b");
+    }
+
+    @Test
+    void projectsNestedFieldsInPayloadOrder() {
+        PayloadTransform transform = compile("""
+                {"fields": {"order.id": "orderId", "type": "type"}}
+                """);
+
+        assertThat(transform.apply("""
+                {"type": "order.created", "meta": {"id": "skip"}, "order": {"id": 7, "lines": [1, 2]}}
+                """)).isEqualTo("{\"type\":\"order.created\",\"orderId\":7}");
+    }
+
+    @Test
+    void projectsAnObjectAndFiltersOnPathsInsideIt() {
+        // order is copied out whole and also walked for order.total and order.id,
+        // so it has to be buffered and read twice
+        PayloadTransform transform = compile("""
+                {"filter": [{"path": "order", "op": "exists"},
+                            {"path": "order.total", "op": "gte", "value": 100}],
+                 "fields": {"order": "order", "order.id": "orderId"}}
+                """);
+
+        assertThat(transform.apply("{\"order\": {\"id\": 7, \"total\": 150}}"))
+                .isEqualTo("{\"order\":{\"id\":7,\"total\":150},\"orderId\":7}");
+        assertThat(transform.apply("{\"order\": {\"id\": 8, \"total\": 99}}")).isNull();
+        assertThat(transform.apply("{\"order\": {\"id\": 9}}")).isNull();
+    }
+
+    @Test
+    void missingFieldsStillGiveAnObject() {
+        PayloadTransform transform = compile("{\"fields\": {\"order.id\": \"orderId\"}}");
+
+        assertThat(transform.apply("{\"order\": \"not an object\"}")).isEqualTo("{}");
+    }
+
+    @Test
+    void firstOfDuplicateKeysCounts() {
+        PayloadTransform filter = compile("""
+                {"filter": [{"path": "type", "op": "eq", "value": "a"}]}
+                """);
+        assertThat(filter.apply("{\"type\": \"a\", \"type\": \"b\"}")).isNotNull();
+        assertThat(filter.apply("{\"type\": \"b\", \"type\": \"a\"}")).isNull();
+
+        PayloadTransform projection = compile("{\"fields\": {\"type\": \"t\", \"id\": \"id\"}}");
+        assertThat(projection.apply("{\"type\": \"a\", \"type\": \"b\", \"id\": 1}"))
+                .isEqualTo("{\"t\":\"a\",\"id\":1}");
+    }
+
+    @Test
+    void stopsReadingOnceEveryPathIsSeen() {
+        PayloadTransform transform = compile("""
+                {"filter": [{"path": "type", "op": "in", "value": ["a", "b"]}],
+                 "fields": {"id": "id"}}
+                """);
+
+        assertThat(transform.apply("{\"type\": \"b\", \"id\": 1, \"rest\": [oops"))
+                .isEqualTo("{\"id\":1}");
+    }
+
+    @Test
+    void stopsReadingAtTheFirstFailingFilter() {
+        PayloadTransform transform = compile("""
+                {"filter": [{"path": "type", "op": "eq", "value": "a"},
+                            {"path": "amount", "op": "lt", "value": 10}]}
+                """);
+
+        assertThat(transform.apply("{\"type\": \"z\", \"amount\": [oops")).isNull();
+    }
+
+    @Test
+    void payloadBrokenBeforeAFilterHasBeenCheckedCountsAsMissing() {
+        PayloadTransform transform = compile("""
+                {"filter": [{"path": "type", "op": "ne", "value": "a"}],
+                 "fields": {"type": "type"}}
+                """);
+
+        // ne matches a missing value; with nothing sound to project, it goes out as is
+        assertThat(transform.apply("{\"id\": [oops")).isEqualTo("{\"id\": [oops");
+    }
+
+    @Test
+    void nonObjectPayloadsHaveNoPaths() {
+        PayloadTransform required = compile("""
+                {"filter": [{"path": "type", "op": "eq", "value": "a"}]}
+                """);
+        assertThat(required.apply("[{\"type\": \"a\"}]")).isNull();
+        assertThat(required.apply("\"a\"")).isNull();
+        assertThat(required.apply("not json")).isNull();
+
+        PayloadTransform absent = compile("""
+                {"filter": [{"path": "type", "op": "exists", "value": false}],
+                 "fields": {"type": "type"}}
+                """);
+        assertThat(absent.apply("[1, 2]")).isEqualTo("[1, 2]");
+        assertThat(absent.apply("42")).isEqualTo("42");
+        assertThat(absent.apply("not json")).isEqualTo("not json");
+    }
+
+    @Test
+    void comparesNumbersAndStrings() {
+        PayloadTransform transform = compile("""
+                {"filter": [{"path": "total", "op": "gt", "value": 10},
+                            {"path": "region", "op": "lte", "value": "m"}]}
+                """);
+
+        assertThat(transform.apply("{\"total\": 10.5, \"region\": \"eu\"}")).isNotNull();
+        assertThat(transform.apply("{\"total\": 10, \"region\": \"eu\"}")).isNull();
+        assertThat(transform.apply("{\"total\": 11, \"region\": \"us\"}")).isNull();
+        // A string can't be compared to a number, so it never matches
+        assertThat(transform.apply("{\"total\": \"11\", \"region\": \"eu\"}")).isNull();
+    }
+}
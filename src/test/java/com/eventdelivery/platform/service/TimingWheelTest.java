@@ -0,0 +1,164 @@
+package com.eventdelivery.platform.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * With a 10ms tick and 4 slots, level 0 spans 40ms, level 1 160ms, level 2
+ * 640ms - so a few hundred milliseconds out already cascades through several
+ * levels. An entry expiring at e has to fire on the first advance to at least
+ * the end of e's tick, never earlier.
+ */
+class TimingWheelTest {
+
+    private static final long TICK = 10;
+    private static final int SIZE = 4;
+
+    private final Map<String, Long> fired = new HashMap<>();
+
+    private void advance(TimingWheel<String> wheel, long nowMs) {
+        wheel.advance(nowMs, item -> assertThat(fired.put(item, nowMs)).as("%s fired twice", item).isNull());
+    }
+
+    private static long tickEnd(long expirationMs) {
+        return expirationMs - Math.floorMod(expirationMs, TICK) + TICK;
+    }
+
+    @Test
+    void rejectsBadSizes() {
+        assertThatThrownBy(() -> new TimingWheel<String>(0, SIZE, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new TimingWheel<String>(TICK, 1, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void firesOnceTheEntrysTickHasPassed() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, SIZE, 0);
+        wheel.add("a", 15);
+
+        advance(wheel, 19);
+        assertThat(fired).isEmpty();
+        advance(wheel, 20);
+        assertThat(fired).containsEntry("a", 20L);
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void cascadesDownThroughEveryLevel() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, SIZE, 0);
+        // Level 0, 1, 2 and 3, plus one on the edge of each level's span
+        long[] expirations = {5, 39, 40, 159, 160, 639, 640, 2000};
+        for (long expiration : expirations) {
+            assertThat(wheel.add("e" + expiration, expiration)).isTrue();
+        }
+        assertThat(wheel.size()).isEqualTo(expirations.length);
+
+        for (long now = 0; now <= 2010; now++) {
+            advance(wheel, now);
+        }
+
+        for (long expiration : expirations) {
+            assertThat(fired).containsEntry("e" + expiration, tickEnd(expiration));
+        }
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void largeJumpFiresEverythingPassed() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, SIZE, 0);
+        wheel.add("near", 30);
+        wheel.add("far", 1500);
+        wheel.add("later", 5000);
+
+        advance(wheel, 1600);
+
+        assertThat(fired).containsOnlyKeys("near", "far");
+        assertThat(wheel.size()).isEqualTo(1);
+    }
+
+    @Test
+    void entryBehindTheCursorIsHandedBack() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, SIZE, 0);
+        advance(wheel, 105);
+
+        // Cursor is at 100: anything before it is already due
+        assertThat(wheel.add("late", 95)).isFalse();
+        assertThat(wheel.add("now", 100)).isTrue();
+        assertThat(wheel.size()).isEqualTo(1);
+
+        advance(wheel, 110);
+        assertThat(fired).containsOnlyKeys("now");
+    }
+
+    @Test
+    void entriesAddedMidLevelWrapIntoSlotsBehindTheCurrentOne() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, SIZE, 0);
+        advance(wheel, 130);
+
+        // Level 1 now covers 120-280 and is on slot 3; 275 lands in its slot 2,
+        // which is behind the current one in the ring. 290 goes up to level 2
+        wheel.add("wrapped", 275);
+        wheel.add("above", 290);
+        wheel.add("next", 135);
+
+        for (long now = 131; now <= 300; now++) {
+            advance(wheel, now);
+        }
+
+        assertThat(fired).containsEntry("next", 140L)
+                .containsEntry("wrapped", 280L)
+                .containsEntry("above", 300L);
+    }
+
+    @Test
+    void randomAddsAndAdvancesFireEachEntryOnTime() {
+        Random random = new Random(42);
+        long start = 1_000_003;
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, SIZE, start);
+        Map<String, Long> expirations = new HashMap<>();
+        List<String> handedBack = new ArrayList<>();
+        long now = start;
+
+        for (int i = 0; i < 5000; i++) {
+            if (random.nextInt(3) == 0) {
+                now += random.nextInt(60);
+                long advancedTo = now;
+                wheel.advance(now, item -> {
+                    assertThat(fired.put(item, advancedTo)).isNull();
+                    // Not early, and not later than the first advance past its tick
+                    assertThat(advancedTo).isGreaterThanOrEqualTo(tickEnd(expirations.get(item)));
+                });
+                continue;
+            }
+            String item = "i" + i;
+            // Mostly ahead, some already behind the cursor, a few far out
+            long expiration = now - 20 + (random.nextInt(10) == 0 ? random.nextInt(20_000) : random.nextInt(400));
+            expirations.put(item, expiration);
+            // Handed back exactly when it's before the cursor, the start of the current tick
+            boolean behind = expiration < now - Math.floorMod(now, TICK);
+            assertThat(wheel.add(item, expiration)).isEqualTo(!behind);
+            if (behind) {
+                handedBack.add(item);
+            }
+        }
+        long end = now + 25_000;
+        for (long t = now; t <= end; t += 7) {
+            long advancedTo = t;
+            wheel.advance(t, item -> assertThat(fired.put(item, advancedTo)).isNull());
+        }
+
+        assertThat(wheel.size()).isZero();
+        assertThat(fired.size() + handedBack.size()).isEqualTo(expirations.size());
+        for (Map.Entry<String, Long> entry : fired.entrySet()) {
+            long due = tickEnd(expirations.get(entry.getKey()));
+            assertThat(entry.getValue()).as(entry.getKey()).isGreaterThanOrEqualTo(due).isLessThan(due + 60);
+        }
+    }
+}